@@ -3,12 +3,22 @@
  */
 package edu.ncsu.csc216.wolf_tracker.model.log;
 
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
 import edu.ncsu.csc216.wolf_tracker.model.task.Task;
+import edu.ncsu.csc216.wolf_tracker.model.util.DurationSketch;
 import edu.ncsu.csc216.wolf_tracker.model.util.ILogList;
-import edu.ncsu.csc216.wolf_tracker.model.util.LogList;
 
 /**
- *  Represents a log of tasks in the Wolf Tracker system
+ *  Represents a log of tasks in the Wolf Tracker system. The log keeps 
+ *  its duration statistics up to date as tasks are added, set, removed,
+ *  and edited, so reading them does not rescan the tasks. Durations are
+ *  stored in a column alongside the tasks, and the statistics are kept
+ *  from the column.
  *  @author Emilie Athanasenas
  */
 public abstract class AbstractTaskLog {
@@ -16,8 +26,14 @@ public abstract class AbstractTaskLog {
 	/** Name of the task log */
 	private String taskLogName;
 
-	/** Instance of ILogList */
-	private ILogList<Task> tasks;
+	/** Storage for the tasks and their durations */
+	private TaskStorage tasks;
+	/** Positions of the tasks by task ID */
+	private TaskPositionIndex positions;
+	/** Sum of the durations of the tasks in the log */
+	private long durationSum;
+	/** Number of tasks in the log with each duration */
+	private TreeMap<Integer, Integer> durationCounts;
 	
 	/**
 	 * Constructor to prepare for concrete class creation
@@ -26,11 +42,29 @@ public abstract class AbstractTaskLog {
 	 * empty string
 	 */
 	public AbstractTaskLog(String taskListName) {
+		this(taskListName, new ColumnarTaskList());
+	}
+	
+	/**
+	 * Constructor to prepare for concrete class creation with the storage
+	 * the log keeps its tasks in
+	 * @param taskListName name of the tasklog
+	 * @param storage empty storage for the log's tasks
+	 * @throws IllegalArgumentException if the taskListName is null or 
+	 * empty string, or the storage is null or not empty
+	 */
+	protected AbstractTaskLog(String taskListName, TaskStorage storage) {
 		if(taskListName == null || taskListName.isEmpty()) {
 			throw new IllegalArgumentException("Invalid name.");
 		}
+		if(storage == null || storage.size() != 0) {
+			throw new IllegalArgumentException("Invalid storage.");
+		}
 		this.taskLogName = taskListName;
-		tasks = new LogList<Task>();
+		tasks = storage;
+		positions = new TaskPositionIndex();
+		durationSum = 0;
+		durationCounts = new TreeMap<Integer, Integer>();
 	}
 	
 	/**
@@ -52,7 +86,8 @@ public abstract class AbstractTaskLog {
 	}
 	
 	/**
-	 * Gets the list of tasks
+	 * Gets the list of tasks. The list should only be read; tasks must be 
+	 * added, set, and removed through the log so its indexes stay current.
 	 * @return list of tasks
 	 */
 	public ILogList<Task> getTasks(){
@@ -60,7 +95,7 @@ public abstract class AbstractTaskLog {
 	}
 	
 	/**
-	 * Adds the task to the end of the log.
+	 * Adds the task to the end of the log. A task may only be in a log once.
 	 * @param task to be added
 	 * @throws NullPointerException if the task is null
 	 */
@@ -70,9 +105,52 @@ public abstract class AbstractTaskLog {
 			throw new NullPointerException();
 		}
 		tasks.addLog(task);
+		countDuration(task.getTaskDuration(), 1);
+		if(positions.needsRebuild())
+		{
+			reindex();
+		}
+		else
+		{
+			positions.add(task.getTaskId());
+		}
 		
 	}
 	
+	/**
+	 * Adds the tasks to the end of the log in the order the collection 
+	 * iterates them. The storage makes room for them once, and the 
+	 * statistics are updated once for each distinct duration in the batch.
+	 * A task may only be in a log once.
+	 * @param newTasks tasks to be added
+	 * @throws NullPointerException if newTasks or any task is null, in 
+	 * which case none are added
+	 */
+	public void addTasks(Collection<Task> newTasks) {
+		int first = tasks.size();
+		tasks.addLogs(newTasks);
+		Map<Integer, Integer> batchCounts = new HashMap<Integer, Integer>();
+		for(int i = first; i < tasks.size(); i++)
+		{
+			batchCounts.merge(tasks.getDuration(i), 1, Integer::sum);
+		}
+		for(Map.Entry<Integer, Integer> count : batchCounts.entrySet())
+		{
+			countDuration(count.getKey(), count.getValue());
+		}
+		if(positions.needsRebuild())
+		{
+			reindex();
+		}
+		else
+		{
+			for(int i = first; i < tasks.size(); i++)
+			{
+				positions.add(tasks.getLog(i).getTaskId());
+			}
+		}
+	}
+	
 	/**
 	 * Sets the task at a given index
 	 * @param index of list 
@@ -89,7 +167,12 @@ public abstract class AbstractTaskLog {
 		{
 			throw new IndexOutOfBoundsException();
 		}
-		tasks.setLog(index, task);		
+		Task replacedTask = tasks.getLog(index);
+		int replacedDuration = tasks.getDuration(index);
+		tasks.setLog(index, task);
+		positions.replace(replacedTask.getTaskId(), task.getTaskId());
+		countDuration(replacedDuration, -1);
+		countDuration(task.getTaskDuration(), 1);
 	}
 	
 	/**
@@ -99,7 +182,78 @@ public abstract class AbstractTaskLog {
 	 * @throws IndexOutOfBoundsException if the index is out of bounds
 	 */
 	public Task removeTask(int index) {
-		return tasks.removeLog(index);
+		int removedDuration = tasks.getDuration(index);
+		Task removedTask = tasks.removeLog(index);
+		positions.remove(removedTask.getTaskId());
+		countDuration(removedDuration, -1);
+		return removedTask;
+	}
+	
+	/**
+	 * Returns the index of the given task in the log, found through the 
+	 * log's index of task IDs instead of by searching the log
+	 * @param task to find
+	 * @return index of the task, or -1 if the task is not in the log
+	 */
+	public int indexOf(Task task) {
+		if(task == null)
+		{
+			return -1;
+		}
+		return positions.indexOf(task.getTaskId());
+	}
+	
+	/**
+	 * Removes every task whose index is set in the given positions in one
+	 * pass over the log
+	 * @param indexes indexes of the tasks to remove
+	 * @return number of tasks removed
+	 * @throws IndexOutOfBoundsException if a set index is out of bounds
+	 */
+	public int removeTasks(BitSet indexes) {
+		if(indexes.length() > tasks.size())
+		{
+			throw new IndexOutOfBoundsException();
+		}
+		for(int i = indexes.nextSetBit(0); i >= 0; i = indexes.nextSetBit(i + 1))
+		{
+			countDuration(tasks.getDuration(i), -1);
+		}
+		int removed = tasks.removeAll(indexes);
+		if(removed > 0)
+		{
+			reindex();
+		}
+		return removed;
+	}
+	
+	/**
+	 * Returns the slot a task was given in the log's index. Slots do not
+	 * change when other tasks are removed, only when the log is reindexed.
+	 * @param task to find
+	 * @return slot of the task, or -1 if the task is not in the log
+	 */
+	protected int slotOf(Task task) {
+		return positions.slotOf(task.getTaskId());
+	}
+	
+	/**
+	 * Converts a set of slots to the indexes of the tasks in them
+	 * @param slots to convert
+	 * @return indexes of the tasks in the slots
+	 */
+	protected BitSet indexesOf(BitSet slots) {
+		return positions.positionsOf(slots);
+	}
+	
+	/**
+	 * Rebuilds the index of task positions from the tasks in the log
+	 */
+	protected void reindex() {
+		positions.clear();
+		for(Task task : tasks) {
+			positions.add(task.getTaskId());
+		}
 	}
 	
 	/**
@@ -130,14 +284,7 @@ public abstract class AbstractTaskLog {
 	 */
 	public int getMinDuration() {
 		if(tasks.size() != 0) {
-			int minimum = tasks.getLog(0).getTaskDuration();
-			for(int i = 0; i < tasks.size() - 1; i++) {
-				if(tasks.getLog(i + 1).getTaskDuration() < minimum) {
-					minimum = tasks.getLog(i + 1).getTaskDuration();
-					
-				}
-			}
-			return minimum;
+			return durationCounts.firstKey();
 		}
 		return 0;
 		
@@ -149,14 +296,7 @@ public abstract class AbstractTaskLog {
 	 */
 	public int getMaxDuration() {
 		if(tasks.size() != 0) {
-			int maximum = tasks.getLog(0).getTaskDuration();
-			for(int i = 0; i < tasks.size() - 1; i++) {
-				if(tasks.getLog(i + 1).getTaskDuration() > maximum) {
-					maximum = tasks.getLog(i + 1).getTaskDuration();
-					
-				}
-			}
-			return maximum;
+			return durationCounts.lastKey();
 		}
 		return 0;
 	}
@@ -166,39 +306,151 @@ public abstract class AbstractTaskLog {
 	 * @return average time it takes to do a task
 	 */
 	public double getAvgDuration() {
-		double sum = 0;
-		for(int i = 0; i < tasks.size(); i++) {
-			sum += tasks.getLog(i).getTaskDuration();
-			
-		}
-		double average = sum / tasks.size();
+		return average(durationSum, tasks.size());
+	}
+	
+	/**
+	 * Works out an average duration rounded to a tenth
+	 * @param sum of the durations
+	 * @param count number of durations
+	 * @return rounded average
+	 */
+	static double average(long sum, int count) {
+		double average = (double) sum / count;
 		double roundedAvg = Math.round(average * 10) / 10.0;
 		return roundedAvg;
 	}
 		
+	/**
+	 * Adds to or removes from the running statistics for a duration
+	 * @param duration of the task counted
+	 * @param delta 1 if the task was added, -1 if it was removed
+	 */
+	private void countDuration(int duration, int delta) {
+		durationSum += (long) duration * delta;
+		durationCounts.merge(duration, delta, (count, change) -> count + change == 0 ? null : count + change);
+		durationCounted(duration, delta);
+	}
+	
+	/**
+	 * Called whenever a duration is added to or removed from the log's
+	 * statistics, so subclasses can keep statistics of their own
+	 * @param duration of the task counted
+	 * @param delta number of tasks with the duration added, or negative the
+	 * number removed
+	 */
+	protected void durationCounted(int duration, int delta) {
+		// No statistics beyond the log's own by default
+	}
+	
+	/**
+	 * Returns a sketch of the durations in the log, for estimating 
+	 * percentiles and histograms. The sketch is a copy, so later changes
+	 * to the log do not change it.
+	 * @return sketch of the durations
+	 */
+	public abstract DurationSketch getDurationSketch();
+	
+	/**
+	 * Estimates the duration at a percentile of the log's tasks. The 
+	 * estimate is kept between the log's minimum and maximum durations.
+	 * @param percentile between 0 and 100
+	 * @return estimated duration, or 0 if the log is empty
+	 * @throws IllegalArgumentException if the percentile is out of range
+	 */
+	public int getPercentile(double percentile) {
+		return percentile(getDurationSketch(), percentile, getMinDuration(), getMaxDuration());
+	}
+	
+	/**
+	 * Estimates the duration at a percentile from a sketch, kept between
+	 * the minimum and maximum durations of the log, since the sketch's 
+	 * estimate can be just outside them
+	 * @param sketch of the durations
+	 * @param percentile between 0 and 100
+	 * @param min minimum duration
+	 * @param max maximum duration
+	 * @return estimated duration, or 0 if the sketch is empty
+	 * @throws IllegalArgumentException if the percentile is out of range
+	 */
+	static int percentile(DurationSketch sketch, double percentile, int min, int max) {
+		int estimate = sketch.getPercentile(percentile);
+		if(sketch.getCount() == 0) {
+			return estimate;
+		}
+		return Math.min(max, Math.max(min, estimate));
+	}
+	
 	/**
 	 * Gets the tasks in a 2D array of strings
 	 * @return list of tasks in a 2D array
 	 */
 	public String[][] getTasksAsArray(){
-		String[][] taskArray = new String[tasks.size()][3];
-		for(int i = 0; i < tasks.size(); i++) {
-			taskArray[i][0] = tasks.getLog(i).getTaskTitle();
-			taskArray[i][1] = "" + tasks.getLog(i).getTaskDuration();
-			taskArray[i][2] = tasks.getLog(i).getCategoryName();
-		}
-		return taskArray;
+		return getTasksAsArray(0, tasks.size());
+	}
+	
+	/**
+	 * Gets a window of the tasks in a 2D array of strings, so a table can
+	 * build only the rows in view. Rows past the end of the log are left
+	 * out, so the window may be shorter than the limit.
+	 * @param offset index of the first task
+	 * @param limit greatest number of tasks
+	 * @return title, duration, and category of each task in the window
+	 * @throws IndexOutOfBoundsException if the offset is negative or past
+	 * the end of the log, or the limit is negative
+	 */
+	public String[][] getTasksAsArray(int offset, int limit){
+		return getRowView().toArray(offset, limit);
 	}
 	
 	/**
-	 * Returns a string representation of the summary statistics 
+	 * Creates a reusable view of the log's rows that reads each field only
+	 * when it is asked for
+	 * @return a view of the log's rows
+	 */
+	public TaskRowView getRowView() {
+		return new TaskRowView(tasks);
+	}
+	
+	/**
+	 * Returns a string representation of the summary statistics: count,
+	 * min, max, average, and the estimated 50th, 90th, and 99th percentiles
 	 * @return String representation of a Task
 	 */
 	public String toString() {
 		if(this.getTaskCount() == 0) {
-			return this.getName() + "," + 0 + "," + "," + ",";
+			return statistics(getName(), 0, 0, 0, 0, null);
+		}
+		return statistics(getName(), getTaskCount(), getMinDuration(), getMaxDuration(), durationSum, getDurationSketch());
+	}
+	
+	/**
+	 * Formats the summary statistics of a log
+	 * @param name of the log
+	 * @param count number of tasks
+	 * @param min minimum duration
+	 * @param max maximum duration
+	 * @param sum sum of the durations
+	 * @param sketch sketch of the durations, not used if count is 0
+	 * @return String representation of the statistics
+	 */
+	static String statistics(String name, int count, int min, int max, long sum, DurationSketch sketch) {
+		if(count == 0) {
+			return name + "," + 0 + "," + "," + "," + "," + "," + ",";
 		}
-		return this.getName() + "," + this.getTaskCount() + "," + this.getMinDuration() + "," + this.getMaxDuration() + "," + this.getAvgDuration();
+		return name + "," + count + "," + min + "," + max + "," + average(sum, count)
+				+ "," + percentile(sketch, 50, min, max) + "," + percentile(sketch, 90, min, max) 
+				+ "," + percentile(sketch, 99, min, max);
+	}
+	
+	/**
+	 * Takes an unmodifiable snapshot of the log as it is now. The snapshot
+	 * shares the log's storage until the log next changes, so it costs
+	 * O(1) to take.
+	 * @return snapshot of the log
+	 */
+	public TaskLogSnapshot snapshot() {
+		return new TaskLogSnapshot(taskLogName, tasks.snapshot());
 	}
 
 }
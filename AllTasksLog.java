@@ -3,21 +3,165 @@
  */
 package edu.ncsu.csc216.wolf_tracker.model.log;
 
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import edu.ncsu.csc216.wolf_tracker.model.task.Task;
+import edu.ncsu.csc216.wolf_tracker.model.util.DurationSketch;
+
 /**
  * AllTasksLog class extends the AbstractTaskLog class and
- * overrides behavior for setting the log's name.
+ * overrides behavior for setting the log's name. It also keeps a bitmap
+ * of the slots each category's tasks are in, so all of a category's tasks
+ * can be removed in one pass when the category is deleted. The log's 
+ * duration sketch is the merge of the sketches of those categories.
  * @author Emilie Athanasenas
  */
 public class AllTasksLog extends AbstractTaskLog {
 	/** Constant name for representing all the tasks */
 	public static final String ALL_TASKS_NAME = "All Tasks";
 	
+	/** Slots of the tasks in each category */
+	private Map<CategoryLog, BitSet> members;
+	
 	/**
 	 * Constructs an object that uses the AbstractTaskLog constructor
 	 * and sets the task log name to "All Tasks"
 	 */
 	public AllTasksLog() {
 		super(ALL_TASKS_NAME);
+		members = new IdentityHashMap<CategoryLog, BitSet>();
+	}
+	
+	/**
+	 * Constructs an All Tasks log that keeps its tasks in the given storage
+	 * @param storage empty storage for the log's tasks
+	 * @throws IllegalArgumentException if the storage is null or not empty
+	 */
+	public AllTasksLog(TaskStorage storage) {
+		super(ALL_TASKS_NAME, storage);
+		members = new IdentityHashMap<CategoryLog, BitSet>();
+	}
+	
+	/**
+	 * Adds the task to the end of the log and records it as a member
+	 * of its category
+	 * @param task to be added
+	 * @throws NullPointerException if the task is null
+	 */
+	@Override
+	public void addTask(Task task) {
+		super.addTask(task);
+		addMember(task);
+	}
+	
+	/**
+	 * Adds the tasks to the end of the log as one batch and records their
+	 * slots in their categories' bitmaps
+	 * @param newTasks tasks to be added
+	 * @throws NullPointerException if newTasks or any task is null
+	 */
+	@Override
+	public void addTasks(Collection<Task> newTasks) {
+		int first = getTaskCount();
+		super.addTasks(newTasks);
+		for(int i = first; i < getTaskCount(); i++) {
+			addMember(getTask(i));
+		}
+	}
+	
+	/**
+	 * Sets the given index of the log to the specified task, moving the
+	 * slot from the replaced task's category to the new task's category
+	 * @param index index of task we're changing
+	 * @param task task to put at the index
+	 * @throws NullPointerException if the task is null
+	 */
+	@Override
+	public void setTask(int index, Task task) {
+		Task replacedTask = getTask(index);
+		removeMember(replacedTask);
+		super.setTask(index, task);
+		addMember(task);
+	}
+	
+	/**
+	 * Removes the task at the given index and returns it
+	 * @param index of the task to remove
+	 * @return the removed task
+	 */
+	@Override
+	public Task removeTask(int index) {
+		Task removedTask = getTask(index);
+		removeMember(removedTask);
+		return super.removeTask(index);
+	}
+	
+	/**
+	 * Returns a sketch of the durations in the log, merged from the 
+	 * sketches of the categories of its tasks. Tasks without a category
+	 * are not in the sketch.
+	 * @return sketch of the durations
+	 */
+	@Override
+	public DurationSketch getDurationSketch() {
+		DurationSketch sketch = new DurationSketch();
+		for(CategoryLog category : members.keySet()) {
+			category.mergeDurationsInto(sketch);
+		}
+		return sketch;
+	}
+	
+	/**
+	 * Removes every task in the given category in a single pass over the
+	 * log
+	 * @param category whose tasks are removed
+	 * @return number of tasks removed
+	 */
+	public int removeCategoryTasks(CategoryLog category) {
+		BitSet slots = members.remove(category);
+		if(slots == null) {
+			return 0;
+		}
+		return removeTasks(indexesOf(slots));
+	}
+	
+	/**
+	 * Rebuilds the index of task positions and the category bitmaps
+	 */
+	@Override
+	protected void reindex() {
+		super.reindex();
+		members.clear();
+		for(Task task : getTasks()) {
+			addMember(task);
+		}
+	}
+	
+	/**
+	 * Sets the task's slot in its category's bitmap
+	 * @param task to record
+	 */
+	private void addMember(Task task) {
+		CategoryLog category = task.getCategory();
+		int slot = slotOf(task);
+		if(category != null && slot >= 0) {
+			members.computeIfAbsent(category, c -> new BitSet()).set(slot);
+		}
+	}
+	
+	/**
+	 * Clears the task's slot in its category's bitmap
+	 * @param task to forget
+	 */
+	private void removeMember(Task task) {
+		BitSet slots = members.get(task.getCategory());
+		int slot = slotOf(task);
+		if(slots != null && slot >= 0) {
+			slots.clear(slot);
+		}
 	}
 	
 	/**
@@ -0,0 +1,186 @@
+/**
+ * util package as it is the list object for our categories, a utility we'll need for the project
+ */
+package edu.ncsu.csc216.wolf_tracker.model.util;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Spliterator;
+
+/**
+ * Array-backed SortedList that finds elements with a binary search.
+ * Adding, removing, and checking for an element take O(log n) comparisons
+ * plus a single array copy, and getting an element by index is O(1).
+ * @author Emilie Athanasenas
+ * @param <E> generic element
+ */
+public class ArraySortedList<E extends Comparable<E>> implements ISortedList<E> {
+	
+	/** Array we're using as a backing for our list, in sorted order */
+	private E[] list;
+	/** Size of list */
+	private int size;
+	/** Number of times elements were added or removed, so iterators can fail fast */
+	private int modCount;
+	/** Initial Capacity of our list when we construct the object */
+	private static final int INIT_CAP = 10;
+	
+	/**
+	 * Constructor to create ArraySortedList Objects
+	 */
+	@SuppressWarnings("unchecked")
+	public ArraySortedList() {
+		list = (E[]) new Comparable<?>[INIT_CAP];
+		size = 0;
+	}
+
+	/**
+	 * Adds the element to the list in sorted order.
+	 * @param element element to add
+	 * @throws NullPointerException if element is null
+	 * @throws IllegalArgumentException if element cannot be added 
+	 */
+	@Override
+	public void add(E element) {
+		if(element == null) {
+			throw new NullPointerException("Cannot add null element.");
+		}
+		
+		int idx = search(element);
+		if(idx >= 0) {
+			throw new IllegalArgumentException("Cannot add duplicate element.");
+		}
+		idx = -(idx + 1);
+		
+		if(size == list.length) {
+			list = Arrays.copyOf(list, list.length * 2);
+		}
+		System.arraycopy(list, idx, list, idx + 1, size - idx);
+		list[idx] = element;
+		size++;
+		modCount++;
+	}
+
+	/**
+	 * Returns the element from the given index.  The element is
+	 * removed from the list.
+	 * @param idx index to remove element from
+	 * @return element at given index
+	 * @throws IndexOutOfBoundsException if the idx is out of bounds
+	 * 		for the list
+	 */
+	@Override
+	public E remove(int idx) {
+		if(idx < 0 || idx >= size) {
+			throw new IndexOutOfBoundsException("Invalid index.");
+		}
+		
+		E removedElement = list[idx];
+		System.arraycopy(list, idx + 1, list, idx, size - idx - 1);
+		list[size - 1] = null;
+		size--;
+		modCount++;
+		return removedElement;
+	}
+
+	/**
+	 * Returns true if the element is in the list.
+	 * @param element element to search for
+	 * @return true if element is found, false if not
+	 */
+	@Override
+	public boolean contains(E element) {
+		return element != null && search(element) >= 0;
+	}
+
+	/**
+	 * Returns the index of the element in the list.
+	 * @param element element to search for
+	 * @return index of the element, or -1 if it is not in the list
+	 */
+	@Override
+	public int indexOf(E element) {
+		if(element == null) {
+			return -1;
+		}
+		int idx = search(element);
+		return idx >= 0 ? idx : -1;
+	}
+
+	/**
+	 * Returns the element at the given index.
+	 * @param idx index of the element to retrieve
+	 * @return element at the given index
+	 * @throws IndexOutOfBoundsException if the idx is out of bounds
+	 * 		for the list
+	 */
+	@Override
+	public E get(int idx) {
+		if(idx < 0 || idx >= size) {
+			throw new IndexOutOfBoundsException("Invalid index.");
+		}
+		return list[idx];
+	}
+
+	/**
+	 * Returns the number of elements in the list.
+	 * @return number of elements in the list
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns an iterator over the elements in sorted order.
+	 * @return iterator over the elements
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return newSpliterator();
+	}
+	
+	/**
+	 * Returns a spliterator over the elements in sorted order, so the 
+	 * elements can be streamed in parallel.
+	 * @return spliterator over the elements
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		return newSpliterator();
+	}
+	
+	/**
+	 * Creates a fail-fast traversal over the list
+	 * @return a new ArraySpliterator
+	 */
+	private ArraySpliterator<E> newSpliterator() {
+		return new ArraySpliterator<E>(i -> list[i], () -> size, () -> modCount,
+				Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL);
+	}
+	
+	/**
+	 * Binary searches the list for an element that compares equal to the
+	 * given element
+	 * @param element element to search for
+	 * @return index of the element if it is found; otherwise 
+	 * -(insertion point) - 1, where the insertion point is the index the 
+	 * element would be added at
+	 */
+	private int search(E element) {
+		int low = 0;
+		int high = size - 1;
+		while(low <= high) {
+			int mid = (low + high) >>> 1;
+			int comparison = list[mid].compareTo(element);
+			if(comparison < 0) {
+				low = mid + 1;
+			} else if(comparison > 0) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+}
@@ -0,0 +1,197 @@
+/**
+ * util package as it is the way our array-backed lists are traversed, a utility we'll need for the project
+ */
+package edu.ncsu.csc216.wolf_tracker.model.util;
+
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+
+/**
+ * Iterator and Spliterator over an array-backed list. The list's size is
+ * read when traversal starts, and the list's modification count is checked
+ * as elements are returned, so a list that is added to or removed from 
+ * during traversal fails fast with a ConcurrentModificationException.
+ * Splitting hands off the first half of the remaining range, so a list can
+ * be traversed by a parallel stream.
+ * @author Emilie Athanasenas
+ * @param <E> generic element
+ */
+class ArraySpliterator<E> implements Iterator<E>, Spliterator<E> {
+	
+	/** Returns the list's element at an index */
+	private final IntFunction<E> elements;
+	/** Returns the list's size */
+	private final IntSupplier size;
+	/** Returns the list's modification count */
+	private final IntSupplier modCount;
+	/** Spliterator characteristics of the list */
+	private final int characteristics;
+	/** Index of the next element to return */
+	private int index;
+	/** Index after the last element to return, or -1 until traversal starts */
+	private int fence;
+	/** Modification count the list must still have */
+	private int expectedModCount;
+	
+	/**
+	 * Constructs an ArraySpliterator over a whole list
+	 * @param elements returns the list's element at an index
+	 * @param size returns the list's size
+	 * @param modCount returns the list's modification count
+	 * @param characteristics Spliterator characteristics of the list
+	 */
+	ArraySpliterator(IntFunction<E> elements, IntSupplier size, IntSupplier modCount, int characteristics) {
+		this(elements, size, modCount, characteristics | Spliterator.SIZED | Spliterator.SUBSIZED, 0, -1, 0);
+	}
+	
+	/**
+	 * Constructs an ArraySpliterator over part of a list
+	 * @param elements returns the list's element at an index
+	 * @param size returns the list's size
+	 * @param modCount returns the list's modification count
+	 * @param characteristics Spliterator characteristics of the list
+	 * @param index index of the first element to return
+	 * @param fence index after the last element to return, or -1 for the end of the list
+	 * @param expectedModCount modification count the list must still have
+	 */
+	private ArraySpliterator(IntFunction<E> elements, IntSupplier size, IntSupplier modCount, int characteristics,
+			int index, int fence, int expectedModCount) {
+		this.elements = elements;
+		this.size = size;
+		this.modCount = modCount;
+		this.characteristics = characteristics;
+		this.index = index;
+		this.fence = fence;
+		this.expectedModCount = expectedModCount;
+	}
+	
+	/**
+	 * Returns the index after the last element to return, reading the list's
+	 * size the first time it is needed
+	 * @return the fence
+	 */
+	private int getFence() {
+		if(fence < 0) {
+			expectedModCount = modCount.getAsInt();
+			fence = size.getAsInt();
+		}
+		return fence;
+	}
+	
+	/**
+	 * Checks that the list has not been changed since traversal started
+	 * @throws ConcurrentModificationException if the list was changed
+	 */
+	private void checkForComodification() {
+		if(modCount.getAsInt() != expectedModCount) {
+			throw new ConcurrentModificationException();
+		}
+	}
+
+	/**
+	 * Returns true if there are elements left to return
+	 * @return true if there is a next element
+	 */
+	@Override
+	public boolean hasNext() {
+		return index < getFence();
+	}
+
+	/**
+	 * Returns the next element
+	 * @return the next element
+	 * @throws NoSuchElementException if there are no elements left
+	 * @throws ConcurrentModificationException if the list was changed
+	 */
+	@Override
+	public E next() {
+		if(index >= getFence()) {
+			throw new NoSuchElementException();
+		}
+		checkForComodification();
+		return elements.apply(index++);
+	}
+
+	/**
+	 * Passes the next element to the action
+	 * @param action to perform on the element
+	 * @return false if there were no elements left
+	 * @throws ConcurrentModificationException if the list was changed
+	 */
+	@Override
+	public boolean tryAdvance(Consumer<? super E> action) {
+		if(index >= getFence()) {
+			return false;
+		}
+		E element = elements.apply(index++);
+		action.accept(element);
+		checkForComodification();
+		return true;
+	}
+
+	/**
+	 * Passes every remaining element to the action
+	 * @param action to perform on each element
+	 * @throws ConcurrentModificationException if the list was changed
+	 */
+	@Override
+	public void forEachRemaining(Consumer<? super E> action) {
+		int hi = getFence();
+		for(; index < hi; index++) {
+			action.accept(elements.apply(index));
+		}
+		checkForComodification();
+	}
+
+	/**
+	 * Splits off the first half of the remaining elements
+	 * @return a Spliterator over the first half, or null if there are too few elements to split
+	 */
+	@Override
+	public Spliterator<E> trySplit() {
+		int lo = index;
+		int mid = (lo + getFence()) >>> 1;
+		if(lo >= mid) {
+			return null;
+		}
+		index = mid;
+		return new ArraySpliterator<E>(elements, size, modCount, characteristics, lo, mid, expectedModCount);
+	}
+
+	/**
+	 * Returns the number of elements left
+	 * @return number of elements left
+	 */
+	@Override
+	public long estimateSize() {
+		return getFence() - index;
+	}
+
+	/**
+	 * Returns the characteristics of the list
+	 * @return Spliterator characteristics
+	 */
+	@Override
+	public int characteristics() {
+		return characteristics;
+	}
+	
+	/**
+	 * Returns null for lists sorted in natural order
+	 * @return null
+	 * @throws IllegalStateException if the list is not sorted
+	 */
+	@Override
+	public Comparator<? super E> getComparator() {
+		if((characteristics & Spliterator.SORTED) == 0) {
+			throw new IllegalStateException();
+		}
+		return null;
+	}
+}
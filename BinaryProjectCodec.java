@@ -0,0 +1,213 @@
+/**
+ * IO package since we're utilizing a file to read from and write to
+ */
+package edu.ncsu.csc216.wolf_tracker.model.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.ncsu.csc216.wolf_tracker.model.log.AllTasksLog;
+import edu.ncsu.csc216.wolf_tracker.model.log.TaskLogSnapshot;
+import edu.ncsu.csc216.wolf_tracker.model.project.Project;
+import edu.ncsu.csc216.wolf_tracker.model.project.ProjectSnapshot;
+import edu.ncsu.csc216.wolf_tracker.model.task.Task;
+
+/**
+ * BinaryProjectCodec reads and writes the compact binary project format.
+ * A binary file starts with the MAGIC bytes and a version, followed by the
+ * project name, a dictionary of the category names, and then every task in
+ * All Tasks order as a length-prefixed record. Each task record stores the
+ * dictionary id of its category instead of the category name, and all
+ * integers are stored as varints.
+ * 
+ * Counts and lengths read from a file are not trusted: varints that do not
+ * fit in a non-negative int are rejected, and bytes are only allocated as
+ * they are read, so a corrupt length cannot allocate more memory than the
+ * file holds.
+ * @author Emilie Athanasenas
+ */
+class BinaryProjectCodec {
+	
+	/** Bytes every binary project file starts with */
+	static final byte[] MAGIC = {'W', 'T', 'P', 'B'};
+	/** Version of the binary format written by this codec */
+	private static final int VERSION = 1;
+	
+	/**
+	 * Writes a project snapshot in the binary format
+	 * @param out stream to write to
+	 * @param project snapshot to write out
+	 * @throws IOException if the stream cannot be written
+	 */
+	static void write(OutputStream out, ProjectSnapshot project) throws IOException {
+		out.write(MAGIC);
+		out.write(VERSION);
+		writeString(out, project.getProjectName());
+		
+		TaskLogSnapshot[] categories = project.getCategoryLogs();
+		writeVarInt(out, categories.length);
+		for(int i = 0; i < categories.length; i++) {
+			writeString(out, categories[i].getName());
+		}
+		
+		TaskLogSnapshot allTasksLog = project.getAllTasksLog();
+		writeVarInt(out, allTasksLog.getTaskCount());
+		ByteArrayOutputStream record = new ByteArrayOutputStream();
+		for(Task task : allTasksLog.getTasks()) {
+			record.reset();
+			writeVarInt(record, project.getCategoryIndex(task));
+			writeVarInt(record, task.getTaskDuration());
+			writeString(record, task.getTaskTitle());
+			writeString(record, task.getTaskDetails());
+			writeVarInt(out, record.size());
+			record.writeTo(out);
+		}
+	}
+	
+	/**
+	 * Reads a project in the binary format. Tasks that are not valid are 
+	 * skipped, the same as in the text format.
+	 * @param in stream to read from, positioned at the MAGIC bytes
+	 * @return Project object
+	 * @throws IOException if the stream cannot be read
+	 * @throws IllegalArgumentException if the stream is not a valid binary project
+	 */
+	static Project read(InputStream in) throws IOException {
+		byte[] magic = readBytes(in, MAGIC.length);
+		for(int i = 0; i < MAGIC.length; i++) {
+			if(magic[i] != MAGIC[i]) {
+				throw new IllegalArgumentException("Unable to load file.");
+			}
+		}
+		if(in.read() != VERSION) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+		
+		Project project = new Project(readString(in));
+		
+		int categoryCount = readVarInt(in);
+		List<String> categoryNames = new ArrayList<String>();
+		for(int i = 0; i < categoryCount; i++) {
+			String categoryName = readString(in);
+			try {
+				project.addCategoryLog(categoryName);
+			} catch(IllegalArgumentException e) {
+				throw new IllegalArgumentException("Invalid categories.");
+			}
+			categoryNames.add(categoryName);
+		}
+		
+		int taskCount = readVarInt(in);
+		for(int i = 0; i < taskCount; i++) {
+			ByteArrayInputStream record = new ByteArrayInputStream(readBytes(in, readVarInt(in)));
+			int categoryId = readVarInt(record);
+			int duration = readVarInt(record);
+			String title = readString(record);
+			String details = readString(record);
+			if(record.available() != 0 || categoryId < 0 || categoryId >= categoryNames.size()) {
+				throw new IllegalArgumentException("Unable to load file.");
+			}
+			try {
+				new TaskRecord(categoryNames.get(categoryId), new Task(title, duration, details)).addTo(project);
+			} catch(IllegalArgumentException e) {
+				//Do Nothing
+			}
+		}
+		
+		project.setCurrentTaskLog(AllTasksLog.ALL_TASKS_NAME);
+		return project;
+	}
+	
+	/**
+	 * Writes a non-negative int as a varint: seven bits per byte, low bits
+	 * first, with the high bit set on every byte except the last
+	 * @param out stream to write to
+	 * @param value to write
+	 * @throws IOException if the stream cannot be written
+	 */
+	static void writeVarInt(OutputStream out, int value) throws IOException {
+		while((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+	
+	/**
+	 * Reads a varint written by writeVarInt. A varint is at most five bytes,
+	 * and the fifth byte may only hold bits 28 to 30, so the value read is
+	 * never negative.
+	 * @param in stream to read from
+	 * @return value that was read
+	 * @throws IOException if the stream cannot be read or ends early
+	 * @throws IllegalArgumentException if the varint is too long or does not
+	 * fit in a non-negative int
+	 */
+	static int readVarInt(InputStream in) throws IOException {
+		int value = 0;
+		for(int shift = 0; shift < 32; shift += 7) {
+			int b = in.read();
+			if(b < 0) {
+				throw new EOFException();
+			}
+			if(shift == 28 && (b & ~0x07) != 0) {
+				throw new IllegalArgumentException("Unable to load file.");
+			}
+			value |= (b & 0x7F) << shift;
+			if((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException("Unable to load file.");
+	}
+	
+	/**
+	 * Writes a string as a varint byte length followed by its UTF-8 bytes
+	 * @param out stream to write to
+	 * @param value to write
+	 * @throws IOException if the stream cannot be written
+	 */
+	static void writeString(OutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarInt(out, bytes.length);
+		out.write(bytes);
+	}
+	
+	/**
+	 * Reads a string written by writeString
+	 * @param in stream to read from
+	 * @return value that was read
+	 * @throws IOException if the stream cannot be read or ends early
+	 */
+	static String readString(InputStream in) throws IOException {
+		return new String(readBytes(in, readVarInt(in)), StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Reads exactly the given number of bytes. The bytes are read in 
+	 * chunks, so a length larger than what is left in the stream ends 
+	 * early instead of allocating the whole length up front.
+	 * @param in stream to read from
+	 * @param length number of bytes to read
+	 * @return bytes that were read
+	 * @throws IOException if the stream cannot be read or ends early
+	 * @throws IllegalArgumentException if the length is negative
+	 */
+	static byte[] readBytes(InputStream in, int length) throws IOException {
+		if(length < 0) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+		byte[] bytes = in.readNBytes(length);
+		if(bytes.length < length) {
+			throw new EOFException();
+		}
+		return bytes;
+	}
+}
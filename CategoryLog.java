@@ -3,14 +3,24 @@
  */
 package edu.ncsu.csc216.wolf_tracker.model.log;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
 import edu.ncsu.csc216.wolf_tracker.model.task.Task;
+import edu.ncsu.csc216.wolf_tracker.model.util.DurationSketch;
 
 /**
  * CategoryLog class extends the AbstractTaskLog class and
- * overrides behavior when adding and setting a task in the log
+ * overrides behavior when adding and setting a task in the log.
+ * Each category keeps a sketch of its durations as tasks change.
  * @author Emilie Athanasenas
  */
 public class CategoryLog extends AbstractTaskLog implements Comparable<CategoryLog> {
+	/** Sketch of the durations of the tasks in the category */
+	private DurationSketch sketch;
+	
 	/**
 	 * Constructs an objects that uses the AbstractTaskLog constructor
 	 * and sets the category log's name to a specified title
@@ -18,6 +28,53 @@ public class CategoryLog extends AbstractTaskLog implements Comparable<CategoryL
 	 */
 	public CategoryLog(String name) {
 		super(name);
+		sketch = new DurationSketch();
+	}
+	
+	/**
+	 * Constructs a category log that keeps its tasks in the given storage
+	 * @param name of our category
+	 * @param storage empty storage for the category's tasks
+	 * @throws IllegalArgumentException if the name is invalid or the 
+	 * storage is null or not empty
+	 */
+	public CategoryLog(String name, TaskStorage storage) {
+		super(name, storage);
+		sketch = new DurationSketch();
+	}
+	
+	/**
+	 * Returns a copy of the sketch of the category's durations
+	 * @return sketch of the durations
+	 */
+	@Override
+	public DurationSketch getDurationSketch() {
+		DurationSketch copy = new DurationSketch();
+		copy.merge(sketch);
+		return copy;
+	}
+	
+	/**
+	 * Merges the category's durations into a sketch without copying
+	 * the category's sketch first
+	 * @param target sketch to merge into
+	 */
+	void mergeDurationsInto(DurationSketch target) {
+		target.merge(sketch);
+	}
+	
+	/**
+	 * Adds the duration to or removes it from the category's sketch
+	 * @param duration of the task counted
+	 * @param delta 1 if the task was added, -1 if it was removed
+	 */
+	@Override
+	protected void durationCounted(int duration, int delta) {
+		if(delta > 0) {
+			sketch.add(duration, delta);
+		} else {
+			sketch.remove(duration, -delta);
+		}
 	}
 	
 	/**
@@ -33,8 +90,8 @@ public class CategoryLog extends AbstractTaskLog implements Comparable<CategoryL
 		if(task == null) {
 			throw new NullPointerException("Task cannot be null");
 		}
-		super.setTask(idx, task);
 		task.addCategory(this);
+		super.setTask(idx, task);
 		
 	}
 	
@@ -49,10 +106,36 @@ public class CategoryLog extends AbstractTaskLog implements Comparable<CategoryL
 		if(task == null) {
 			throw new NullPointerException("Task cannot be null");
 		}
-		super.addTask(task);
 		task.addCategory(this);
+		super.addTask(task);
 		
 	}
+	
+	/**
+	 * Adds the tasks to the end of the log as one batch, assigning this 
+	 * category to each of them. The tasks are checked before any is 
+	 * assigned, so a bad task leaves the log and the other tasks unchanged.
+	 * @param newTasks tasks to be added
+	 * @throws NullPointerException if newTasks or any task is null
+	 * @throws IllegalArgumentException if a task already has a category or
+	 * is in the batch more than once
+	 */
+	@Override
+	public void addTasks(Collection<Task> newTasks) {
+		Set<Task> checked = Collections.newSetFromMap(new IdentityHashMap<Task, Boolean>());
+		for(Task task : newTasks) {
+			if(task == null) {
+				throw new NullPointerException("Task cannot be null");
+			}
+			if(task.getCategory() != null || !checked.add(task)) {
+				throw new IllegalArgumentException("Incomplete task information.");
+			}
+		}
+		for(Task task : newTasks) {
+			task.addCategory(this);
+		}
+		super.addTasks(newTasks);
+	}
 
 	/**
 	 * Compares the names of the CategoryLog's ignoring case
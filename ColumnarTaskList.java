@@ -0,0 +1,176 @@
+/**
+ * Log Package since this is how a log stores its tasks
+ */
+package edu.ncsu.csc216.wolf_tracker.model.log;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+import edu.ncsu.csc216.wolf_tracker.model.task.Task;
+import edu.ncsu.csc216.wolf_tracker.model.util.LogList;
+
+/**
+ * Task storage that keeps the durations of the tasks in an int array 
+ * alongside the list of tasks. Every change to the list is made to the 
+ * array as well, so the two stay aligned, and loops over durations run 
+ * over contiguous memory instead of going through each Task.
+ * @author Emilie Athanasenas
+ */
+class ColumnarTaskList extends LogList<Task> implements TaskStorage {
+	
+	/** Initial capacity of the duration column */
+	private static final int INIT_CAP = 10;
+	
+	/** Durations of the tasks, in the same order as the list */
+	private int[] durations;
+	/** True if the column is shared with a snapshot and must be copied before a duration in it is changed */
+	private boolean durationsShared;
+	
+	/**
+	 * Constructs an empty ColumnarTaskList
+	 */
+	ColumnarTaskList() {
+		super();
+		durations = new int[INIT_CAP];
+	}
+	
+	/**
+	 * Constructs an unmodifiable snapshot of another ColumnarTaskList,
+	 * sharing its list and column
+	 * @param source list to take the snapshot of
+	 */
+	private ColumnarTaskList(ColumnarTaskList source) {
+		super(source);
+		durations = source.durations;
+		source.durationsShared = true;
+	}
+	
+	/**
+	 * Adds the task to the end of the list and its duration to the end
+	 * of the column.
+	 * @param element task to add
+	 * @throws NullPointerException if element is null
+	 */
+	@Override
+	public void addLog(Task element) {
+		super.addLog(element);
+		int idx = size() - 1;
+		if(idx == durations.length) {
+			int[] newDurations = new int[durations.length * 2];
+			System.arraycopy(durations, 0, newDurations, 0, idx);
+			durations = newDurations;
+		}
+		durations[idx] = element.getTaskDuration();
+	}
+	
+	/**
+	 * Adds the tasks to the end of the list and their durations to the end
+	 * of the column, growing the column at most once.
+	 * @param elements tasks to add
+	 * @throws NullPointerException if elements or any task is null, in 
+	 * which case none are added
+	 */
+	@Override
+	public void addLogs(Collection<? extends Task> elements) {
+		int first = size();
+		super.addLogs(elements);
+		if(size() > durations.length) {
+			int[] newDurations = new int[Math.max(durations.length * 2, size())];
+			System.arraycopy(durations, 0, newDurations, 0, first);
+			durations = newDurations;
+		}
+		for(int i = first; i < size(); i++) {
+			durations[i] = getLog(i).getTaskDuration();
+		}
+	}
+	
+	/**
+	 * Sets the task at the given index and its duration in the column.
+	 * @param idx index of the task to set
+	 * @param element task to put at the index
+	 * @throws NullPointerException if element is null
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 * 		for the list
+	 */
+	@Override
+	public void setLog(int idx, Task element) {
+		super.setLog(idx, element);
+		unshareDurations();
+		durations[idx] = element.getTaskDuration();
+	}
+	
+	/**
+	 * Removes the task at the given index and its duration from the column.
+	 * @param idx index of the task to remove
+	 * @return task at the given index
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 * 		for the list
+	 */
+	@Override
+	public Task removeLog(int idx) {
+		Task removedTask = super.removeLog(idx);
+		unshareDurations();
+		System.arraycopy(durations, idx + 1, durations, idx, size() - idx);
+		return removedTask;
+	}
+	
+	/**
+	 * Removes every task whose index is set in the given positions, 
+	 * compacting the list and the column in the same pass.
+	 * @param positions indexes of the tasks to remove
+	 * @return number of tasks removed
+	 * @throws IndexOutOfBoundsException if a set index is out of bounds
+	 * 		for the list
+	 */
+	@Override
+	public int removeAll(BitSet positions) {
+		int oldSize = size();
+		int removed = super.removeAll(positions);
+		if(removed > 0) {
+			unshareDurations();
+			int kept = positions.nextSetBit(0);
+			for(int i = kept; i < oldSize; i++) {
+				if(!positions.get(i)) {
+					durations[kept] = durations[i];
+					kept++;
+				}
+			}
+		}
+		return removed;
+	}
+	
+	/**
+	 * Returns an unmodifiable copy of the list and column as they are now,
+	 * sharing their arrays until the list next changes a task in them.
+	 * @return unmodifiable copy of the list
+	 */
+	@Override
+	public ColumnarTaskList snapshot() {
+		return new ColumnarTaskList(this);
+	}
+	
+	/**
+	 * Copies the column if it is shared with a snapshot
+	 */
+	private void unshareDurations() {
+		if(durationsShared) {
+			durations = durations.clone();
+			durationsShared = false;
+		}
+	}
+	
+	/**
+	 * Returns the stored duration of the task at the given index.
+	 * @param idx index of the task
+	 * @return duration of the task
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 * 		for the list
+	 */
+	@Override
+	public int getDuration(int idx) {
+		if(idx < 0 || idx >= size()) {
+			throw new IndexOutOfBoundsException("Invalid index");
+		}
+		return durations[idx];
+	}
+}
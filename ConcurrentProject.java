@@ -0,0 +1,465 @@
+/**
+ * project package as this is the central hub of the other classes to be used for the GUI
+ */
+package edu.ncsu.csc216.wolf_tracker.model.project;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+import edu.ncsu.csc216.wolf_tracker.model.io.ProjectWriter;
+import edu.ncsu.csc216.wolf_tracker.model.log.AllTasksLog;
+import edu.ncsu.csc216.wolf_tracker.model.task.Task;
+
+/**
+ * Thread-safe facade over a Project. Reads run in parallel under the read
+ * lock, and changes take the write lock. Reads of a single count, which 
+ * never walk the project's structures, are first tried optimistically and
+ * only take the read lock if a write happened while they were reading.
+ * 
+ * The facade has no current log. Every read and change names the log it 
+ * works on, so threads never change the log another thread is using. The
+ * wrapped project's current log is only used while the write lock is held.
+ * The wrapped project must not be used directly while it is shared 
+ * through the facade.
+ * 
+ * Listeners registered with the facade get one batch of events for each
+ * write, after the write lock is released, so they may read through the
+ * facade. Batches are delivered one at a time in the order the writes 
+ * were made, possibly on the thread of a later write. Listeners must not
+ * change the project through the facade.
+ * @author Emilie Athanasenas
+ */
+public class ConcurrentProject {
+	
+	/** The project being shared */
+	private final Project project;
+	/** Lock guarding the project */
+	private final StampedLock lock;
+	/** Listeners told about the changes made through the facade */
+	private final List<ProjectListener> listeners;
+	/** Lock held for the whole of a save, so saves run one at a time */
+	private final ReentrantLock saveLock;
+	/** Batches of events waiting to be delivered, in the order they were written */
+	private final Queue<List<ProjectEvent>> undelivered;
+	/** Lock held while batches are delivered, so only one thread delivers at a time */
+	private final ReentrantLock deliveryLock;
+	/** Listener queuing the wrapped project's batches, registered with it only while the facade has listeners */
+	private final ProjectListener relay;
+	
+	/**
+	 * Constructs a ConcurrentProject sharing the given project
+	 * @param project to share
+	 * @throws IllegalArgumentException if the project is null
+	 */
+	public ConcurrentProject(Project project) {
+		if(project == null) {
+			throw new IllegalArgumentException("Invalid project.");
+		}
+		this.project = project;
+		this.lock = new StampedLock();
+		this.listeners = new CopyOnWriteArrayList<ProjectListener>();
+		this.undelivered = new ConcurrentLinkedQueue<List<ProjectEvent>>();
+		this.deliveryLock = new ReentrantLock();
+		this.saveLock = new ReentrantLock();
+		this.relay = undelivered::add;
+	}
+	
+	/**
+	 * Registers a listener to be told about each write's changes. The 
+	 * facade only listens to the wrapped project while it has listeners of
+	 * its own, so writes record no events when nobody is listening.
+	 * @param listener to register
+	 * @throws IllegalArgumentException if the listener is null
+	 */
+	public void addProjectListener(ProjectListener listener) {
+		if(listener == null) {
+			throw new IllegalArgumentException("Invalid listener.");
+		}
+		long stamp = lock.writeLock();
+		try {
+			if(listeners.isEmpty()) {
+				project.addProjectListener(relay);
+			}
+			listeners.add(listener);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	/**
+	 * Stops telling a listener about the project's changes
+	 * @param listener to remove
+	 */
+	public void removeProjectListener(ProjectListener listener) {
+		long stamp = lock.writeLock();
+		try {
+			if(listeners.remove(listener) && listeners.isEmpty()) {
+				project.removeProjectListener(relay);
+			}
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+	
+	/**
+	 * Gets the name of the project
+	 * @return name of the project
+	 */
+	public String getProjectName() {
+		return project.getProjectName();
+	}
+	
+	/**
+	 * Returns whether the project has changed since it was last saved
+	 * @return true if the project has unsaved changes
+	 */
+	public boolean isChanged() {
+		return project.isChanged();
+	}
+	
+	/**
+	 * Gets the number of changes made to the project since it was created
+	 * @return number of changes made to the project
+	 */
+	public int getChangeCount() {
+		return project.getChangeCount();
+	}
+	
+	/**
+	 * Gets the names of the logs, starting with "All Tasks"
+	 * @return names of the logs
+	 */
+	public String[] getCategoryNames() {
+		return read(project::getCategoryNames);
+	}
+	
+	/**
+	 * Gets the tasks of a log in a 2D array of strings
+	 * @param logName name of a category, or "All Tasks"
+	 * @return title, duration, and category of each task
+	 * @throws IllegalArgumentException if there is no log with that name
+	 */
+	public String[][] getTasksAsArray(String logName) {
+		return read(() -> project.getTaskLog(logName).getTasksAsArray());
+	}
+	
+	/**
+	 * Gets a window of the tasks of a log in a 2D array of strings
+	 * @param logName name of a category, or "All Tasks"
+	 * @param offset index of the first task
+	 * @param limit greatest number of tasks
+	 * @return title, duration, and category of each task in the window
+	 * @throws IllegalArgumentException if there is no log with that name
+	 * @throws IndexOutOfBoundsException if the offset is negative or past
+	 * the end of the log, or the limit is negative
+	 */
+	public String[][] getTasksAsArray(String logName, int offset, int limit) {
+		return read(() -> project.getTaskLog(logName).getTasksAsArray(offset, limit));
+	}
+	
+	/**
+	 * Gets the number of tasks in a log
+	 * @param logName name of a category, or "All Tasks"
+	 * @return number of tasks
+	 * @throws IllegalArgumentException if there is no log with that name
+	 */
+	public int getTaskCount(String logName) {
+		if(AllTasksLog.ALL_TASKS_NAME.equals(logName)) {
+			return readOptimistically(() -> project.getAllTasksLog().getTaskCount());
+		}
+		return read(() -> project.getTaskLog(logName).getTaskCount());
+	}
+	
+	/**
+	 * Gets the summary statistics of a log, as written to the stats file
+	 * @param logName name of a category, or "All Tasks"
+	 * @return statistics of the log
+	 * @throws IllegalArgumentException if there is no log with that name
+	 */
+	public String getStats(String logName) {
+		return read(() -> project.getTaskLog(logName).toString());
+	}
+	
+	/**
+	 * Gets the most recent task of each category
+	 * @return title, duration, and category of each category's most recent task
+	 */
+	public String[][] getMostRecentTasks() {
+		return read(project::getMostRecentTasks);
+	}
+	
+	/**
+	 * Adds a category
+	 * @param categoryName name of the new category
+	 * @throws IllegalArgumentException if the name is invalid or in use
+	 */
+	public void addCategoryLog(String categoryName) {
+		write(() -> project.addCategoryLog(categoryName));
+	}
+	
+	/**
+	 * Renames a category
+	 * @param categoryName current name of the category
+	 * @param newName new name of the category
+	 * @throws IllegalArgumentException if there is no category with that
+	 * name or the new name is invalid or in use
+	 */
+	public void editCategoryLogName(String categoryName, String newName) {
+		write(() -> {
+			selectCategory(categoryName);
+			project.editCategoryLogName(newName);
+		});
+	}
+	
+	/**
+	 * Removes a category and its tasks
+	 * @param categoryName name of the category
+	 * @throws IllegalArgumentException if there is no category with that name
+	 */
+	public void removeCategoryLog(String categoryName) {
+		write(() -> {
+			selectCategory(categoryName);
+			project.removeCategoryLog();
+		});
+	}
+	
+	/**
+	 * Adds a task to a category
+	 * @param categoryName name of the category
+	 * @param task to add
+	 * @throws IllegalArgumentException if there is no category with that name
+	 */
+	public void addTask(String categoryName, Task task) {
+		write(() -> {
+			selectCategory(categoryName);
+			project.addTask(task);
+		});
+	}
+	
+	/**
+	 * Adds a batch of tasks to a category in one write
+	 * @param categoryName name of the category
+	 * @param tasks to add, in order
+	 * @throws IllegalArgumentException if there is no category with that 
+	 * name or a task cannot be added
+	 */
+	public void addTasks(String categoryName, Collection<Task> tasks) {
+		write(() -> project.addTasks(categoryName, tasks));
+	}
+	
+	/**
+	 * Adds batches of tasks to several categories in one write
+	 * @param tasks to add, in order, by category name
+	 * @throws IllegalArgumentException if a category name is not in the 
+	 * project or a task cannot be added
+	 */
+	public void addTasks(Map<String, ? extends Collection<Task>> tasks) {
+		write(() -> project.addTasks(tasks));
+	}
+	
+	/**
+	 * Edits a task in a log
+	 * @param logName name of a category, or "All Tasks"
+	 * @param index of the task in the log
+	 * @param title new title of the task
+	 * @param duration new duration of the task
+	 * @param details new details of the task
+	 * @throws IllegalArgumentException if there is no log with that name or
+	 * the task information is invalid
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 */
+	public void editTask(String logName, int index, String title, int duration, String details) {
+		write(() -> {
+			selectLog(logName);
+			project.editTask(index, title, duration, details);
+		});
+	}
+	
+	/**
+	 * Removes a task from a log and from the log it is also in
+	 * @param logName name of a category, or "All Tasks"
+	 * @param index of the task in the log
+	 * @throws IllegalArgumentException if there is no log with that name
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 */
+	public void removeTask(String logName, int index) {
+		write(() -> {
+			selectLog(logName);
+			project.removeTask(index);
+		});
+	}
+	
+	/**
+	 * Takes a snapshot of the project, which can be read without locking
+	 * while the project keeps changing
+	 * @return snapshot of the project
+	 */
+	public ProjectSnapshot snapshot() {
+		long stamp = lock.readLock();
+		try {
+			return project.snapshot();
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+	
+	/**
+	 * Saves the project to a file. The file is written from a snapshot, 
+	 * so changes can go on while it is written; the project is only marked
+	 * as saved if it did not change in the meantime. A journaled project
+	 * commits its journal instead, and changes wait until that is done.
+	 * Saves run one at a time, so an older snapshot is never renamed over
+	 * a newer one.
+	 * @param file to save to
+	 * @throws IllegalArgumentException if the file cannot be written
+	 */
+	public void saveProject(File file) {
+		saveLock.lock();
+		try {
+			long stamp = lock.writeLock();
+			ProjectSnapshot snapshot;
+			try {
+				if(project.getJournal() != null && project.getJournal().isJournalFor(file)) {
+					project.saveProject(file);
+					return;
+				}
+				snapshot = project.snapshot();
+			} finally {
+				lock.unlockWrite(stamp);
+			}
+			ProjectWriter.writeProjectFile(file, snapshot);
+			write(() -> {
+				if(project.getChangeCount() == snapshot.getChangeCount()) {
+					project.setChanged(false);
+				}
+			});
+		} finally {
+			saveLock.unlock();
+		}
+	}
+	
+	/**
+	 * Saves the project statistics to a file, written from a snapshot so
+	 * changes can go on while it is written.
+	 * @param file to save to
+	 * @throws IllegalArgumentException if the file cannot be written
+	 */
+	public void saveStats(File file) {
+		ProjectWriter.writeStatsFile(file, snapshot());
+	}
+	
+	/**
+	 * Returns the wrapped project, which may only be used inside write
+	 * @return the wrapped project
+	 */
+	Project getProject() {
+		return project;
+	}
+	
+	/**
+	 * Runs a change to the project as one transaction while holding the 
+	 * write lock. The transaction's events are queued before the write 
+	 * lock is released, so the queue is in the order the writes were made,
+	 * and are delivered after it is released.
+	 * @param change to run
+	 */
+	void write(Runnable change) {
+		long stamp = lock.writeLock();
+		try {
+			project.beginTransaction();
+			try {
+				change.run();
+			} finally {
+				project.endTransaction();
+			}
+		} finally {
+			lock.unlockWrite(stamp);
+			if(!undelivered.isEmpty()) {
+				deliver();
+			}
+		}
+	}
+	
+	/**
+	 * Sends the queued batches of events to the listeners in order. Only 
+	 * one thread delivers at a time; the write lock is not held, so the 
+	 * listeners can read while other threads write.
+	 */
+	private void deliver() {
+		deliveryLock.lock();
+		try {
+			List<ProjectEvent> events;
+			while((events = undelivered.poll()) != null) {
+				for(ProjectListener listener : listeners) {
+					listener.projectChanged(events);
+				}
+			}
+		} finally {
+			deliveryLock.unlock();
+		}
+	}
+	
+	/**
+	 * Reads from the project under the read lock
+	 * @param <T> type of the value read
+	 * @param reader reads the value from the project
+	 * @return the value read
+	 */
+	<T> T read(Supplier<T> reader) {
+		long stamp = lock.readLock();
+		try {
+			return reader.get();
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+	
+	/**
+	 * Reads from the project without locking, and reads again under the 
+	 * read lock if a write happened while reading. Only for readers that 
+	 * read fields and never walk the project's structures, so they cannot
+	 * fail or loop on a project changing underneath them.
+	 * @param <T> type of the value read
+	 * @param reader reads the value from the project's fields
+	 * @return the value read
+	 */
+	private <T> T readOptimistically(Supplier<T> reader) {
+		long stamp = lock.tryOptimisticRead();
+		if(stamp != 0) {
+			T value = reader.get();
+			if(lock.validate(stamp)) {
+				return value;
+			}
+		}
+		return read(reader);
+	}
+	
+	/**
+	 * Makes a category the wrapped project's current log
+	 * @param categoryName name of the category
+	 * @throws IllegalArgumentException if there is no category with that name
+	 */
+	private void selectCategory(String categoryName) {
+		if(AllTasksLog.ALL_TASKS_NAME.equals(categoryName)) {
+			throw new IllegalArgumentException("Invalid name.");
+		}
+		selectLog(categoryName);
+	}
+	
+	/**
+	 * Makes a log the wrapped project's current log
+	 * @param logName name of a category, or "All Tasks"
+	 * @throws IllegalArgumentException if there is no log with that name
+	 */
+	private void selectLog(String logName) {
+		project.setCurrentTaskLog(project.getTaskLog(logName).getName());
+	}
+}
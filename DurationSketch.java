@@ -0,0 +1,215 @@
+/**
+ * util package as it is the way duration percentiles are estimated, a utility we'll need for the project
+ */
+package edu.ncsu.csc216.wolf_tracker.model.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mergeable sketch of a set of positive durations that estimates 
+ * percentiles and histograms without sorting the durations. Each duration
+ * is counted in a bucket whose bounds grow by a constant factor, so an 
+ * estimated percentile is within RELATIVE_ACCURACY of a duration in the 
+ * set. Durations can be removed as well as added, and two sketches are 
+ * merged by adding their bucket counts, so the sketch of several logs is 
+ * the merge of their sketches.
+ * 
+ * Durations below about 50 each get their own bucket, so their estimates
+ * round to the exact duration. Durations are also counted exactly by 
+ * power of two range, so the histogram does not depend on the estimates.
+ * @author Emilie Athanasenas
+ */
+public class DurationSketch {
+	
+	/** Largest relative error of an estimated percentile */
+	public static final double RELATIVE_ACCURACY = 0.01;
+	/** Factor between the bounds of consecutive buckets */
+	private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+	/** Natural logarithm of GAMMA */
+	private static final double LOG_GAMMA = Math.log(GAMMA);
+	
+	/** Number of durations in each bucket, by bucket key */
+	private final TreeMap<Integer, Long> buckets;
+	/** Number of durations in each power of two range, by the index of the duration's highest bit */
+	private final long[] ranges;
+	/** Number of durations in the sketch */
+	private long count;
+	
+	/**
+	 * Constructs an empty DurationSketch
+	 */
+	public DurationSketch() {
+		buckets = new TreeMap<Integer, Long>();
+		ranges = new long[Integer.SIZE - 1];
+		count = 0;
+	}
+	
+	/**
+	 * Adds a duration to the sketch
+	 * @param duration to add
+	 * @throws IllegalArgumentException if the duration is not positive
+	 */
+	public void add(int duration) {
+		add(duration, 1);
+	}
+	
+	/**
+	 * Adds a number of copies of a duration to the sketch
+	 * @param duration to add
+	 * @param copies number of times to add the duration
+	 * @throws IllegalArgumentException if the duration or copies is not 
+	 * positive
+	 */
+	public void add(int duration, long copies) {
+		if(copies < 1) {
+			throw new IllegalArgumentException("Invalid count.");
+		}
+		update(key(duration), copies);
+		ranges[range(duration)] += copies;
+	}
+	
+	/**
+	 * Removes a duration that was added to the sketch
+	 * @param duration to remove
+	 * @throws IllegalArgumentException if the duration is not positive or
+	 * is not in the sketch
+	 */
+	public void remove(int duration) {
+		remove(duration, 1);
+	}
+	
+	/**
+	 * Removes a number of copies of a duration that were added to the 
+	 * sketch
+	 * @param duration to remove
+	 * @param copies number of times to remove the duration
+	 * @throws IllegalArgumentException if the duration or copies is not 
+	 * positive, or the duration is not in the sketch that many times
+	 */
+	public void remove(int duration, long copies) {
+		int key = key(duration);
+		if(copies < 1 || buckets.getOrDefault(key, 0L) < copies) {
+			throw new IllegalArgumentException("Duration is not in the sketch.");
+		}
+		update(key, -copies);
+		ranges[range(duration)] -= copies;
+	}
+	
+	/**
+	 * Adds every duration in another sketch to this one
+	 * @param other sketch to merge into this one
+	 */
+	public void merge(DurationSketch other) {
+		for(Map.Entry<Integer, Long> bucket : other.buckets.entrySet()) {
+			update(bucket.getKey(), bucket.getValue());
+		}
+		for(int i = 0; i < ranges.length; i++) {
+			ranges[i] += other.ranges[i];
+		}
+	}
+	
+	/**
+	 * Returns the number of durations in the sketch
+	 * @return number of durations
+	 */
+	public long getCount() {
+		return count;
+	}
+	
+	/**
+	 * Estimates the duration at a percentile, using the nearest-rank 
+	 * definition
+	 * @param percentile between 0 and 100
+	 * @return estimated duration, rounded to a whole number, or 0 if the
+	 * sketch is empty
+	 * @throws IllegalArgumentException if the percentile is out of range
+	 */
+	public int getPercentile(double percentile) {
+		if(percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("Invalid percentile.");
+		}
+		if(count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+		long seen = 0;
+		for(Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+			seen += bucket.getValue();
+			if(seen >= rank) {
+				return estimate(bucket.getKey());
+			}
+		}
+		return estimate(buckets.lastKey());
+	}
+	
+	/**
+	 * Counts the durations in power of two ranges: the count at index i is
+	 * the exact number of durations from 2^i up to but not including 
+	 * 2^(i+1).
+	 * @return counts of the durations in each range, up to the highest
+	 * range with a duration
+	 */
+	public long[] getHistogram() {
+		int length = ranges.length;
+		while(length > 0 && ranges[length - 1] == 0) {
+			length--;
+		}
+		return Arrays.copyOf(ranges, length);
+	}
+	
+	/**
+	 * Adds to or removes from the count of a bucket
+	 * @param key of the bucket
+	 * @param delta number of durations added, negative if removed
+	 */
+	private void update(int key, long delta) {
+		buckets.merge(key, delta, (total, change) -> total + change == 0 ? null : total + change);
+		count += delta;
+	}
+	
+	/**
+	 * Returns the key of the bucket a duration is counted in. Bucket k
+	 * holds the durations greater than GAMMA^(k-1) and at most GAMMA^k.
+	 * @param duration to place
+	 * @return bucket key
+	 * @throws IllegalArgumentException if the duration is not positive
+	 */
+	private static int key(int duration) {
+		if(duration < 1) {
+			throw new IllegalArgumentException("Invalid duration.");
+		}
+		return (int) Math.ceil(Math.log(duration) / LOG_GAMMA);
+	}
+	
+	/**
+	 * Returns the estimate of the durations in a bucket, which is within
+	 * RELATIVE_ACCURACY of any duration in the bucket
+	 * @param key of the bucket
+	 * @return estimated duration
+	 */
+	private static double value(int key) {
+		return 2 * Math.pow(GAMMA, key) / (GAMMA + 1);
+	}
+	
+	/**
+	 * Returns a bucket's estimate rounded to a whole duration. The estimate
+	 * of the highest buckets can be above Integer.MAX_VALUE, so it is 
+	 * capped there.
+	 * @param key of the bucket
+	 * @return estimated duration
+	 */
+	private static int estimate(int key) {
+		return (int) Math.min(Integer.MAX_VALUE, Math.round(value(key)));
+	}
+	
+	/**
+	 * Returns the power of two range a duration falls in
+	 * @param duration to place, which is positive
+	 * @return index of the duration's highest bit
+	 */
+	private static int range(int duration) {
+		return Integer.SIZE - 1 - Integer.numberOfLeadingZeros(duration);
+	}
+}
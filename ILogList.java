@@ -3,13 +3,19 @@
  */
 package edu.ncsu.csc216.wolf_tracker.model.util;
 
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Spliterator;
 
 /**
  * Interface for logged items.  Items are added to the end of the list.
- * Items may be edited (set) and removed.
+ * Items may be edited (set) and removed.  Items are iterated in the order
+ * they were logged, and iterators fail fast if items are added or removed
+ * while iterating.
  * @param <E> type for ILogList
  */
-public interface ILogList<E> {
+public interface ILogList<E> extends Iterable<E> {
 	
 	/**
 	 * Adds the element to the end of the list.
@@ -19,6 +25,16 @@ public interface ILogList<E> {
 	 */
 	void addLog(E element);
 	
+	/**
+	 * Adds the elements to the end of the list, in the order the collection
+	 * iterates them. Room for all of them is made at once.
+	 * @param elements elements to add
+	 * @throws NullPointerException if elements or any element is null, in 
+	 * which case none are added
+	 * @throws IllegalArgumentException if an element cannot be added
+	 */
+	void addLogs(Collection<? extends E> elements);
+	
 	/**
 	 * Set the log at the given index to the given element.
 	 * @param idx index of the log to edit
@@ -39,6 +55,17 @@ public interface ILogList<E> {
 	 */
 	E removeLog(int idx);
 	
+	/**
+	 * Removes every log whose index is set in the given positions. The 
+	 * remaining logs keep their order and are moved up in a single pass.
+	 * @param positions indexes of the logs to remove
+	 * @return number of logs removed
+	 * @throws NullPointerException if positions is null
+	 * @throws IndexOutOfBoundsException if a set index is out of bounds
+	 * 		for the list
+	 */
+	int removeAll(BitSet positions);
+	
 	/**
 	 * Returns the log at the given index.
 	 * @param idx index of log to get
@@ -48,10 +75,34 @@ public interface ILogList<E> {
 	 */
 	E getLog(int idx);
 	
+	/**
+	 * Returns an unmodifiable copy of the list as it is now. The copy 
+	 * shares storage with the list, so taking it is O(1); the list copies
+	 * its storage before it next changes an element the copy can see. 
+	 * Later changes to the list do not appear in the copy.
+	 * @return unmodifiable copy of the list
+	 */
+	ILogList<E> snapshot();
+	
 	/**
 	 * Returns the number of logged elements.
 	 * @return number of logged elements
 	 */
 	int size();
+	
+	/**
+	 * Returns an iterator over the logged elements in order.
+	 * @return iterator over the elements
+	 */
+	@Override
+	Iterator<E> iterator();
+	
+	/**
+	 * Returns a spliterator over the logged elements in order, so the 
+	 * elements can be streamed in parallel.
+	 * @return spliterator over the elements
+	 */
+	@Override
+	Spliterator<E> spliterator();
 
 }
\ No newline at end of file
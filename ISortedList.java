@@ -3,15 +3,19 @@
  */
 package edu.ncsu.csc216.wolf_tracker.model.util;
 
+import java.util.Iterator;
+import java.util.Spliterator;
+
 /**
  * Interface for a list that keeps objects in sorted order as defined by the
- * Comparable interface.
+ * Comparable interface.  Elements are iterated in sorted order, and 
+ * iterators fail fast if elements are added or removed while iterating.
  * 
  * @author Dr. Sarah Heckman (sarah_heckman@ncsu.edu)
  * 
  * @param <E> type for ISortedList; must implement Comparable
  */
-public interface ISortedList<E extends Comparable<E>> {
+public interface ISortedList<E extends Comparable<E>> extends Iterable<E> {
 	
 	/**
 	 * Adds the element to the list in sorted order.
@@ -38,6 +42,13 @@ public interface ISortedList<E extends Comparable<E>> {
 	 */
 	boolean contains(E element);
 	
+	/**
+	 * Returns the index of the element in the list.
+	 * @param element element to search for
+	 * @return index of the element, or -1 if it is not in the list
+	 */
+	int indexOf(E element);
+	
 	/**
 	 * Returns the element at the given index.
 	 * @param idx index of the element to retrieve
@@ -52,5 +63,20 @@ public interface ISortedList<E extends Comparable<E>> {
 	 * @return number of elements in the list
 	 */
 	int size();
+	
+	/**
+	 * Returns an iterator over the elements in sorted order.
+	 * @return iterator over the elements
+	 */
+	@Override
+	Iterator<E> iterator();
+	
+	/**
+	 * Returns a spliterator over the elements in sorted order, so the 
+	 * elements can be streamed in parallel.
+	 * @return spliterator over the elements
+	 */
+	@Override
+	Spliterator<E> spliterator();
 
 }
\ No newline at end of file
@@ -3,6 +3,11 @@
  */
 package edu.ncsu.csc216.wolf_tracker.model.util;
 
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Spliterator;
+
 /**
  * List implementation from ILogList interface to create a list
  * of logs made from a generic element 
@@ -15,6 +20,12 @@ public class LogList<E> implements ILogList<E> {
 	private E[] list;
 	/** Size of list */
 	private int size;
+	/** Number of times elements were added or removed, so iterators can fail fast */
+	private int modCount;
+	/** True if the array is shared with a snapshot and must be copied before an element in it is changed */
+	private boolean shared;
+	/** True if the list is a snapshot, which cannot be changed */
+	private final boolean readOnly;
 	/** Initial Capacity of our list when we construct the object */
 	private static final int INIT_CAP = 10;
 	
@@ -25,6 +36,19 @@ public class LogList<E> implements ILogList<E> {
 	public LogList(){
 		list = (E[]) new Object[INIT_CAP];
 		size = 0;		
+		readOnly = false;
+	}
+	
+	/**
+	 * Constructor for an unmodifiable snapshot of another list, sharing
+	 * its array
+	 * @param source list to take the snapshot of
+	 */
+	protected LogList(LogList<E> source) {
+		list = source.list;
+		size = source.size;
+		readOnly = true;
+		source.shared = true;
 	}
 	
 	
@@ -36,6 +60,7 @@ public class LogList<E> implements ILogList<E> {
 	 */
 	@Override
 	public void addLog(E element) {
+		checkWritable();
 		if(element == null)
 		{
 			throw new NullPointerException("Cannot add null element");
@@ -46,6 +71,39 @@ public class LogList<E> implements ILogList<E> {
 		}
 		list[size] = element;
 		size++;
+		modCount++;
+	}
+	
+	/**
+	 * Adds the elements to the end of the list, in the order the collection
+	 * iterates them. The array is grown at most once and the elements are 
+	 * copied into it together.
+	 * @param elements elements to add
+	 * @throws NullPointerException if elements or any element is null, in 
+	 * which case none are added
+	 */
+	@Override
+	public void addLogs(Collection<? extends E> elements) {
+		checkWritable();
+		Object[] added = elements.toArray();
+		for(Object element : added)
+		{
+			if(element == null)
+			{
+				throw new NullPointerException("Cannot add null element");
+			}
+		}
+		if(added.length == 0)
+		{
+			return;
+		}
+		if(size + added.length > list.length)
+		{
+			ensureCapacity(Math.max(list.length * 2, size + added.length));
+		}
+		System.arraycopy(added, 0, list, size, added.length);
+		size += added.length;
+		modCount++;
 	}
 
 	
@@ -60,6 +118,7 @@ public class LogList<E> implements ILogList<E> {
 	 */
 	@Override
 	public void setLog(int idx, E element) {
+		checkWritable();
 		if(element == null)
 		{
 			throw new NullPointerException("Cannot add null element");
@@ -68,6 +127,7 @@ public class LogList<E> implements ILogList<E> {
 		{
 			throw new IndexOutOfBoundsException("Invalid index");
 		}
+		unshare();
 		list[idx] = element;
 	}
 
@@ -80,10 +140,12 @@ public class LogList<E> implements ILogList<E> {
 	 */
 	@Override
 	public E removeLog(int idx) {
+		checkWritable();
 		if(idx < 0 || idx >= size)
 		{
 			throw new IndexOutOfBoundsException("Invalid index");
 		}
+		unshare();
 		E removedItem = getLog(idx);
 		for(int i = idx; i < size - 1; i++)
 		{
@@ -91,10 +153,52 @@ public class LogList<E> implements ILogList<E> {
 		}
 		list[size - 1] = null;
 		size--;
+		modCount++;
 		return removedItem;
 	}
 
 	
+	/**
+	 * Removes every log whose index is set in the given positions. The 
+	 * remaining logs keep their order and are moved up in a single pass.
+	 * @param positions indexes of the logs to remove
+	 * @return number of logs removed
+	 * @throws NullPointerException if positions is null
+	 * @throws IndexOutOfBoundsException if a set index is out of bounds
+	 * 		for the list
+	 */
+	@Override
+	public int removeAll(BitSet positions) {
+		checkWritable();
+		if(positions.length() > size)
+		{
+			throw new IndexOutOfBoundsException("Invalid index");
+		}
+		int first = positions.nextSetBit(0);
+		if(first < 0)
+		{
+			return 0;
+		}
+		unshare();
+		int kept = first;
+		for(int i = first; i < size; i++)
+		{
+			if(!positions.get(i))
+			{
+				list[kept] = list[i];
+				kept++;
+			}
+		}
+		for(int i = kept; i < size; i++)
+		{
+			list[i] = null;
+		}
+		int removed = size - kept;
+		size = kept;
+		modCount++;
+		return removed;
+	}
+	
 	/**
 	 * Returns the log at the given index.
 	 * @param idx index of log to get
@@ -113,6 +217,18 @@ public class LogList<E> implements ILogList<E> {
 	}
 
 	
+	/**
+	 * Returns an unmodifiable copy of the list as it is now, sharing the 
+	 * list's array until the list next changes an element in it. Elements
+	 * added later go past the end of the copy, so they do not copy the 
+	 * array.
+	 * @return unmodifiable copy of the list
+	 */
+	@Override
+	public ILogList<E> snapshot() {
+		return new LogList<E>(this);
+	}
+	
 	/**
 	 * Returns the number of logged elements.
 	 * @return number of logged elements
@@ -122,6 +238,56 @@ public class LogList<E> implements ILogList<E> {
 		return size;
 	}
 
+	/**
+	 * Returns an iterator over the logged elements in order.
+	 * @return iterator over the elements
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return newSpliterator();
+	}
+	
+	/**
+	 * Returns a spliterator over the logged elements in order, so the 
+	 * elements can be streamed in parallel.
+	 * @return spliterator over the elements
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		return newSpliterator();
+	}
+	
+	/**
+	 * Creates a fail-fast traversal over the list
+	 * @return a new ArraySpliterator
+	 */
+	private ArraySpliterator<E> newSpliterator() {
+		return new ArraySpliterator<E>(i -> list[i], () -> size, () -> modCount,
+				Spliterator.ORDERED | Spliterator.NONNULL);
+	}
+
+	/**
+	 * Checks that the list can be changed
+	 * @throws UnsupportedOperationException if the list is a snapshot
+	 */
+	protected void checkWritable() {
+		if(readOnly)
+		{
+			throw new UnsupportedOperationException("Snapshots cannot be changed.");
+		}
+	}
+	
+	/**
+	 * Copies the array if it is shared with a snapshot, so elements can be
+	 * changed without the snapshot seeing it
+	 */
+	private void unshare() {
+		if(shared)
+		{
+			ensureCapacity(list.length);
+		}
+	}
+	
 	/**
 	 * sees the size of the log list and sees if we need to expand it
 	 * @param capacity figuring out if the list is up to size
@@ -129,10 +295,8 @@ public class LogList<E> implements ILogList<E> {
 	private void ensureCapacity(int capacity){
 		@SuppressWarnings("unchecked")
 		E[] newList = (E[]) new Object[capacity];
-		for(int i = 0; i < size; i++)
-		{
-			newList[i] = list[i];
-		}
+		System.arraycopy(list, 0, newList, 0, size);
 		list = newList;
+		shared = false;
 	}
 }
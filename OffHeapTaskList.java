@@ -0,0 +1,534 @@
+/**
+ * Log Package since this is how a log stores its tasks
+ */
+package edu.ncsu.csc216.wolf_tracker.model.log;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+import edu.ncsu.csc216.wolf_tracker.model.task.Task;
+
+/**
+ * Task storage that keeps its tasks as records in a direct ByteBuffer 
+ * outside of the Java heap, for logs with millions of tasks. A slot table
+ * holds the position of each task's record in the buffer, so the only 
+ * objects on the heap per task are the ones currently being read.
+ * 
+ * Tasks are recreated from their records each time they are read, keeping
+ * their task ID and category. Reading the same index twice returns two 
+ * different Task objects, so an edited task must be set again to be 
+ * stored. Records that were removed or replaced are reclaimed when the 
+ * buffer grows. The buffer holds at most 2 GB of records.
+ * 
+ * Records are never changed once written, and a full buffer is replaced
+ * rather than rewritten, so a snapshot only has to share the buffer and 
+ * the slot table; the slot table is copied before it is next changed.
+ * 
+ * Each category is given a number the first time one of its tasks is 
+ * stored, and the list counts the stored tasks of each category. Once the
+ * last of them is removed, the list lets go of the category and its 
+ * number can be given to another one, so a removed category is not kept
+ * alive by the list. The category table is shared with snapshots the same
+ * way as the slot table.
+ * @author Emilie Athanasenas
+ */
+public class OffHeapTaskList implements TaskStorage {
+	
+	/** Initial capacity of the record buffer in bytes */
+	private static final int INIT_DATA_CAP = 4096;
+	/** Initial capacity of the slot table */
+	private static final int INIT_SLOT_CAP = 16;
+	/** Largest capacity of the record buffer */
+	private static final int MAX_DATA_CAP = Integer.MAX_VALUE - 8;
+	/** Position of the duration in a record, after the task ID */
+	private static final int DURATION_OFFSET = 8;
+	/** Position of the category number in a record */
+	private static final int CATEGORY_OFFSET = 12;
+	/** Position of the title length in a record */
+	private static final int TITLE_OFFSET = 16;
+	/** Category number of a task without a category */
+	private static final int NO_CATEGORY = -1;
+	
+	/** Records of the tasks, off the heap */
+	private ByteBuffer data;
+	/** End of the last record in the buffer */
+	private int dataEnd;
+	/** Position of each task's record, in order */
+	private int[] slots;
+	/** Number of tasks */
+	private int size;
+	/** Number of times tasks were added or removed, so iterators can fail fast */
+	private int modCount;
+	/** True if the slot table is shared with a snapshot and must be copied before a slot in it is changed */
+	private boolean slotsShared;
+	/** True if the list is a snapshot, which cannot be changed */
+	private final boolean readOnly;
+	/** Categories of the stored tasks, by category number, or null for a number not in use */
+	private CategoryLog[] categories;
+	/** Number of category numbers that have been given out */
+	private int categoryCount;
+	/** Number of stored tasks of each category, by category number */
+	private int[] categoryTasks;
+	/** True if the category table is shared with a snapshot and must be copied before it is changed */
+	private boolean categoriesShared;
+	/** Category number of each category */
+	private final Map<CategoryLog, Integer> categoryNumbers;
+	
+	/**
+	 * Constructs an empty OffHeapTaskList
+	 */
+	public OffHeapTaskList() {
+		data = ByteBuffer.allocateDirect(INIT_DATA_CAP);
+		dataEnd = 0;
+		slots = new int[INIT_SLOT_CAP];
+		size = 0;
+		modCount = 0;
+		readOnly = false;
+		categories = new CategoryLog[INIT_SLOT_CAP];
+		categoryCount = 0;
+		categoryTasks = new int[INIT_SLOT_CAP];
+		categoryNumbers = new IdentityHashMap<CategoryLog, Integer>();
+	}
+	
+	/**
+	 * Constructs an unmodifiable snapshot of another OffHeapTaskList, 
+	 * sharing its buffer, slot table, and categories
+	 * @param source list to take the snapshot of
+	 */
+	private OffHeapTaskList(OffHeapTaskList source) {
+		data = source.data;
+		dataEnd = source.dataEnd;
+		slots = source.slots;
+		size = source.size;
+		modCount = 0;
+		readOnly = true;
+		categories = source.categories;
+		categoryCount = source.categoryCount;
+		categoryTasks = null;
+		categoryNumbers = null;
+		source.slotsShared = true;
+		source.categoriesShared = true;
+	}
+	
+	/**
+	 * Adds the task to the end of the list.
+	 * @param element task to add
+	 * @throws NullPointerException if element is null
+	 * @throws IllegalStateException if the buffer is full
+	 */
+	@Override
+	public void addLog(Task element) {
+		checkWritable();
+		if(element == null) {
+			throw new NullPointerException("Cannot add null element");
+		}
+		int record = writeRecord(element);
+		if(size == slots.length) {
+			int[] newSlots = new int[slots.length * 2];
+			System.arraycopy(slots, 0, newSlots, 0, size);
+			slots = newSlots;
+			slotsShared = false;
+		}
+		slots[size] = record;
+		size++;
+		modCount++;
+	}
+	
+	/**
+	 * Adds the tasks to the end of the list, growing the slot table at most
+	 * once.
+	 * @param elements tasks to add
+	 * @throws NullPointerException if elements or any task is null, in 
+	 * which case none are added
+	 * @throws IllegalStateException if the buffer is full, in which case 
+	 * none are added
+	 */
+	@Override
+	public void addLogs(Collection<? extends Task> elements) {
+		checkWritable();
+		Task[] added = elements.toArray(new Task[0]);
+		for(Task element : added) {
+			if(element == null) {
+				throw new NullPointerException("Cannot add null element");
+			}
+		}
+		if(size + added.length > slots.length) {
+			int[] newSlots = new int[Math.max(slots.length * 2, size + added.length)];
+			System.arraycopy(slots, 0, newSlots, 0, size);
+			slots = newSlots;
+			slotsShared = false;
+		}
+		int first = size;
+		try {
+			for(Task element : added) {
+				slots[size] = writeRecord(element);
+				size++;
+			}
+		} catch(IllegalStateException e) {
+			for(int i = first; i < size; i++) {
+				releaseCategory(slots[i]);
+			}
+			size = first;
+			throw e;
+		}
+		modCount++;
+	}
+	
+	/**
+	 * Stores the task at the given index in place of the task there.
+	 * @param idx index of the task to set
+	 * @param element task to store at the index
+	 * @throws NullPointerException if element is null
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 * 		for the list
+	 * @throws IllegalStateException if the buffer is full
+	 */
+	@Override
+	public void setLog(int idx, Task element) {
+		checkWritable();
+		if(element == null) {
+			throw new NullPointerException("Cannot add null element");
+		}
+		checkIndex(idx);
+		int record = writeRecord(element);
+		releaseCategory(slots[idx]);
+		unshareSlots();
+		slots[idx] = record;
+	}
+	
+	/**
+	 * Removes the task at the given index.
+	 * @param idx index of the task to remove
+	 * @return task at the given index
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 * 		for the list
+	 */
+	@Override
+	public Task removeLog(int idx) {
+		checkWritable();
+		Task removedTask = getLog(idx);
+		releaseCategory(slots[idx]);
+		unshareSlots();
+		System.arraycopy(slots, idx + 1, slots, idx, size - idx - 1);
+		size--;
+		modCount++;
+		return removedTask;
+	}
+	
+	/**
+	 * Removes every task whose index is set in the given positions,
+	 * compacting the slot table in one pass.
+	 * @param positions indexes of the tasks to remove
+	 * @return number of tasks removed
+	 * @throws IndexOutOfBoundsException if a set index is out of bounds
+	 * 		for the list
+	 */
+	@Override
+	public int removeAll(BitSet positions) {
+		checkWritable();
+		if(positions.length() > size) {
+			throw new IndexOutOfBoundsException("Invalid index");
+		}
+		int first = positions.nextSetBit(0);
+		if(first < 0) {
+			return 0;
+		}
+		unshareSlots();
+		int kept = first;
+		for(int i = first; i < size; i++) {
+			if(!positions.get(i)) {
+				slots[kept] = slots[i];
+				kept++;
+			} else {
+				releaseCategory(slots[i]);
+			}
+		}
+		int removed = size - kept;
+		size = kept;
+		modCount++;
+		return removed;
+	}
+	
+	/**
+	 * Recreates the task at the given index from its record.
+	 * @param idx index of the task to get
+	 * @return task at the given index
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 * 		for the list
+	 */
+	@Override
+	public Task getLog(int idx) {
+		checkIndex(idx);
+		int record = slots[idx];
+		long taskId = data.getLong(record);
+		int duration = data.getInt(record + DURATION_OFFSET);
+		int categoryNumber = data.getInt(record + CATEGORY_OFFSET);
+		int titleLength = data.getInt(record + TITLE_OFFSET);
+		String title = readString(record + TITLE_OFFSET + 4, titleLength);
+		int detailsStart = record + TITLE_OFFSET + 4 + titleLength;
+		String details = readString(detailsStart + 4, data.getInt(detailsStart));
+		Task task = new Task(taskId, title, duration, details);
+		if(categoryNumber != NO_CATEGORY) {
+			task.addCategory(categories[categoryNumber]);
+		}
+		return task;
+	}
+	
+	/**
+	 * Returns the stored duration of the task at the given index, without
+	 * recreating the task.
+	 * @param idx index of the task
+	 * @return duration of the task
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 * 		for the list
+	 */
+	@Override
+	public int getDuration(int idx) {
+		checkIndex(idx);
+		return data.getInt(slots[idx] + DURATION_OFFSET);
+	}
+	
+	/**
+	 * Returns an unmodifiable copy of the list as it is now, sharing the
+	 * buffer and the slot table.
+	 * @return unmodifiable copy of the list
+	 */
+	@Override
+	public OffHeapTaskList snapshot() {
+		return new OffHeapTaskList(this);
+	}
+	
+	/**
+	 * Returns the number of tasks.
+	 * @return number of tasks
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+	
+	/**
+	 * Returns an iterator that recreates the tasks in order.
+	 * @return iterator over the tasks
+	 */
+	@Override
+	public Iterator<Task> iterator() {
+		return new Iterator<Task>() {
+			/** Index of the next task */
+			private int next = 0;
+			/** Modification count the list had when iteration started */
+			private final int expectedModCount = modCount;
+			
+			@Override
+			public boolean hasNext() {
+				return next < size;
+			}
+			
+			@Override
+			public Task next() {
+				if(modCount != expectedModCount) {
+					throw new ConcurrentModificationException();
+				}
+				if(next >= size) {
+					throw new NoSuchElementException();
+				}
+				return getLog(next++);
+			}
+		};
+	}
+	
+	/**
+	 * Returns a spliterator that recreates the tasks in order.
+	 * @return spliterator over the tasks
+	 */
+	@Override
+	public Spliterator<Task> spliterator() {
+		return Spliterators.spliterator(iterator(), size, Spliterator.ORDERED | Spliterator.NONNULL);
+	}
+	
+	/**
+	 * Checks that the list can be changed
+	 * @throws UnsupportedOperationException if the list is a snapshot
+	 */
+	private void checkWritable() {
+		if(readOnly) {
+			throw new UnsupportedOperationException("Snapshots cannot be changed.");
+		}
+	}
+	
+	/**
+	 * Copies the slot table if it is shared with a snapshot
+	 */
+	private void unshareSlots() {
+		if(slotsShared) {
+			slots = slots.clone();
+			slotsShared = false;
+		}
+	}
+	
+	/**
+	 * Checks that an index is in the list
+	 * @param idx index to check
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 */
+	private void checkIndex(int idx) {
+		if(idx < 0 || idx >= size) {
+			throw new IndexOutOfBoundsException("Invalid index");
+		}
+	}
+	
+	/**
+	 * Writes a task's record at the end of the buffer. The record is the
+	 * task ID, duration, category number, and the title and details as
+	 * length-prefixed UTF-8.
+	 * @param task to write
+	 * @return position of the record
+	 * @throws IllegalStateException if the buffer is full
+	 */
+	private int writeRecord(Task task) {
+		byte[] title = task.getTaskTitle().getBytes(StandardCharsets.UTF_8);
+		byte[] details = task.getTaskDetails().getBytes(StandardCharsets.UTF_8);
+		long length = TITLE_OFFSET + 4L + title.length + 4L + details.length;
+		reserve(length);
+		int record = dataEnd;
+		data.putLong(record, task.getTaskId());
+		data.putInt(record + DURATION_OFFSET, task.getTaskDuration());
+		int categoryNumber = categoryNumber(task.getCategory());
+		if(categoryNumber != NO_CATEGORY) {
+			categoryTasks[categoryNumber]++;
+		}
+		data.putInt(record + CATEGORY_OFFSET, categoryNumber);
+		ByteBuffer strings = data.duplicate();
+		strings.position(record + TITLE_OFFSET);
+		strings.putInt(title.length).put(title).putInt(details.length).put(details);
+		dataEnd = (int) (record + length);
+		return record;
+	}
+	
+	/**
+	 * Makes room for a record at the end of the buffer. When the buffer is
+	 * full, the records still in the slot table are copied in order to a
+	 * new buffer, which reclaims the space of removed and replaced records.
+	 * The new buffer is doubled until the records fit in it.
+	 * @param length of the record
+	 * @throws IllegalStateException if the records do not fit in MAX_DATA_CAP
+	 */
+	private void reserve(long length) {
+		if(dataEnd + length <= data.capacity()) {
+			return;
+		}
+		long live = 0;
+		for(int i = 0; i < size; i++) {
+			live += recordLength(slots[i]);
+		}
+		long capacity = data.capacity();
+		while(live + length > capacity) {
+			capacity *= 2;
+		}
+		if(live + length > MAX_DATA_CAP) {
+			throw new IllegalStateException("Task storage is full.");
+		}
+		ByteBuffer newData = ByteBuffer.allocateDirect((int) Math.min(capacity, MAX_DATA_CAP));
+		unshareSlots();
+		for(int i = 0; i < size; i++) {
+			int recordLength = recordLength(slots[i]);
+			ByteBuffer record = data.duplicate();
+			record.position(slots[i]).limit(slots[i] + recordLength);
+			slots[i] = newData.position();
+			newData.put(record);
+		}
+		data = newData;
+		dataEnd = newData.position();
+	}
+	
+	/**
+	 * Returns the length of the record at a position
+	 * @param record position of the record
+	 * @return length of the record in bytes
+	 */
+	private int recordLength(int record) {
+		int titleLength = data.getInt(record + TITLE_OFFSET);
+		int detailsLength = data.getInt(record + TITLE_OFFSET + 4 + titleLength);
+		return TITLE_OFFSET + 4 + titleLength + 4 + detailsLength;
+	}
+	
+	/**
+	 * Decodes a UTF-8 string from the buffer
+	 * @param position of the string
+	 * @param length of the string in bytes
+	 * @return the string
+	 */
+	private String readString(int position, int length) {
+		byte[] bytes = new byte[length];
+		ByteBuffer string = data.duplicate();
+		string.position(position);
+		string.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Returns the number of a category, giving it one if it has none. A 
+	 * number let go of by another category is given out again before a new
+	 * one is used.
+	 * @param category of a task, or null
+	 * @return category number, or NO_CATEGORY if category is null
+	 */
+	private int categoryNumber(CategoryLog category) {
+		if(category == null) {
+			return NO_CATEGORY;
+		}
+		Integer number = categoryNumbers.get(category);
+		if(number == null) {
+			number = 0;
+			while(number < categoryCount && categories[number] != null) {
+				number++;
+			}
+			if(number == categoryCount) {
+				if(categoryCount == categories.length) {
+					categories = Arrays.copyOf(categories, categories.length * 2);
+					categoryTasks = Arrays.copyOf(categoryTasks, categoryTasks.length * 2);
+					categoriesShared = false;
+				}
+				categoryCount++;
+			}
+			unshareCategories();
+			categories[number] = category;
+			categoryNumbers.put(category, number);
+		}
+		return number;
+	}
+	
+	/**
+	 * Counts a record as no longer stored, letting go of its category if 
+	 * it was the last stored task of that category
+	 * @param record position of the record
+	 */
+	private void releaseCategory(int record) {
+		int number = data.getInt(record + CATEGORY_OFFSET);
+		if(number != NO_CATEGORY && --categoryTasks[number] == 0) {
+			unshareCategories();
+			categoryNumbers.remove(categories[number]);
+			categories[number] = null;
+		}
+	}
+	
+	/**
+	 * Copies the category table if it is shared with a snapshot
+	 */
+	private void unshareCategories() {
+		if(categoriesShared) {
+			categories = categories.clone();
+			categoriesShared = false;
+		}
+	}
+}
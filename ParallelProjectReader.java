@@ -0,0 +1,209 @@
+/**
+ * IO package since we're utilizing a file to read from
+ */
+package edu.ncsu.csc216.wolf_tracker.model.io;
+
+import java.io.BufferedReader;
+import java.io.CharArrayReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import edu.ncsu.csc216.wolf_tracker.model.log.AllTasksLog;
+import edu.ncsu.csc216.wolf_tracker.model.project.Project;
+
+/**
+ * ParallelProjectReader class reads the same files as ProjectReader, but
+ * memory-maps the file and parses the task records on the fork/join pool.
+ * The file is cut into chunks that each start at a * record, the chunks are 
+ * parsed in parallel, and the parsed tasks are added to the Project in file
+ * order so the All Tasks log matches a sequential load. Compressed and 
+ * binary files cannot be split this way, so they are read with 
+ * ProjectReader instead.
+ * @author Emilie Athanasenas
+ */
+public class ParallelProjectReader {
+	
+	/** Target number of bytes in each chunk that is parsed on its own */
+	private static final int CHUNK_SIZE = 8 * 1024 * 1024;
+	/** Number of bytes mapped at a time when searching for a record boundary */
+	private static final int SCAN_WINDOW = 64 * 1024;
+	
+	/**
+	 * Takes in a file and reads it in parallel and outputs it as a Project 
+	 * object
+	 * @param file to be read in
+	 * @return Project object
+	 * @throws IllegalArgumentException if the file cannot be loaded or any other issues occur
+	 */
+	public static Project readProjectFile(File file) {
+		if(file == null || !file.exists()) {
+			throw new IllegalArgumentException("Unable to load file");
+		}
+		
+		Charset charset = Charset.defaultCharset();
+		try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if(startsWith(channel, size, ProjectReader.GZIP_MAGIC) || startsWith(channel, size, BinaryProjectCodec.MAGIC)) {
+				return ProjectReader.readProjectFile(file);
+			}
+			long bodyStart = findRecordStart(channel, 1, size);
+			
+			Project project = ProjectReader.readProject(reader(channel, 0, bodyStart, charset));
+			
+			List<long[]> chunks = new ArrayList<long[]>();
+			long start = bodyStart;
+			while(start < size) {
+				long end = findRecordStart(channel, Math.min(start + CHUNK_SIZE, size), size);
+				chunks.add(new long[] {start, end});
+				start = end;
+			}
+			
+			if(!chunks.isEmpty()) {
+				List<TaskRecord> records = ForkJoinPool.commonPool().invoke(
+						new ChunkParser(channel, chunks, 0, chunks.size(), charset));
+				for(TaskRecord record : records) {
+					record.addTo(project);
+				}
+			}
+			
+			project.setCurrentTaskLog(AllTasksLog.ALL_TASKS_NAME);
+			return project;
+		} catch(IOException e) {
+			throw new IllegalArgumentException("Unable to load file");
+		}
+	}
+	
+	/**
+	 * Returns true if the file starts with the given bytes
+	 * @param channel the file to check
+	 * @param size size of the file
+	 * @param magic bytes to look for
+	 * @return true if the file starts with the magic bytes
+	 * @throws IOException if the file cannot be mapped
+	 */
+	private static boolean startsWith(FileChannel channel, long size, byte[] magic) throws IOException {
+		if(size < magic.length) {
+			return false;
+		}
+		MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, magic.length);
+		for(int i = 0; i < magic.length; i++) {
+			if(header.get(i) != magic[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Finds the first task record that starts at or after the given position.
+	 * A task record starts with a * at the beginning of a line.
+	 * @param channel the file to search
+	 * @param from position to start searching from; must be at least 1
+	 * @param size size of the file
+	 * @return position of the * that starts the record, or size if there is none
+	 * @throws IOException if the file cannot be mapped
+	 */
+	private static long findRecordStart(FileChannel channel, long from, long size) throws IOException {
+		long window = from - 1;
+		while(size - window >= 2) {
+			int length = (int) Math.min(SCAN_WINDOW, size - window);
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, window, length);
+			for(int i = 0; i < length - 1; i++) {
+				if(buffer.get(i) == '\n' && buffer.get(i + 1) == '*') {
+					return window + i + 1;
+				}
+			}
+			window += length - 1;
+		}
+		return size;
+	}
+	
+	/**
+	 * Maps a region of the file and returns a reader over its decoded text
+	 * @param channel the file to map
+	 * @param start position of the first byte of the region
+	 * @param end position after the last byte of the region
+	 * @param charset to decode the region with
+	 * @return reader over the text of the region
+	 * @throws IOException if the region cannot be mapped
+	 * @throws IllegalArgumentException if the region is too large to map
+	 */
+	private static BufferedReader reader(FileChannel channel, long start, long end, Charset charset) throws IOException {
+		if(end - start > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Unable to load file");
+		}
+		CharBuffer text = charset.decode(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start));
+		return new BufferedReader(new CharArrayReader(text.array(), text.arrayOffset() + text.position(), text.remaining()));
+	}
+	
+	/**
+	 * Fork/join task that parses a range of chunks and returns their task
+	 * records in file order
+	 */
+	private static class ChunkParser extends RecursiveTask<List<TaskRecord>> {
+		/** ID used for serialization */
+		private static final long serialVersionUID = 1L;
+		/** File the chunks are mapped from */
+		private final transient FileChannel channel;
+		/** Start and end positions of every chunk in the file */
+		private final transient List<long[]> chunks;
+		/** Index of the first chunk parsed by this task */
+		private final int low;
+		/** Index after the last chunk parsed by this task */
+		private final int high;
+		/** Charset the file is decoded with */
+		private final transient Charset charset;
+		
+		/**
+		 * Constructs a ChunkParser for the chunks in [low, high)
+		 * @param channel the file the chunks are mapped from
+		 * @param chunks start and end positions of every chunk
+		 * @param low index of the first chunk to parse
+		 * @param high index after the last chunk to parse
+		 * @param charset to decode the chunks with
+		 */
+		ChunkParser(FileChannel channel, List<long[]> chunks, int low, int high, Charset charset) {
+			this.channel = channel;
+			this.chunks = chunks;
+			this.low = low;
+			this.high = high;
+			this.charset = charset;
+		}
+
+		/**
+		 * Parses a single chunk, or splits the range in half and parses both
+		 * halves in parallel
+		 * @return the task records of the range in file order
+		 */
+		@Override
+		protected List<TaskRecord> compute() {
+			if(high - low > 1) {
+				int mid = (low + high) >>> 1;
+				ChunkParser left = new ChunkParser(channel, chunks, low, mid, charset);
+				left.fork();
+				List<TaskRecord> right = new ChunkParser(channel, chunks, mid, high, charset).compute();
+				List<TaskRecord> records = left.join();
+				records.addAll(right);
+				return records;
+			}
+			
+			List<TaskRecord> records = new ArrayList<TaskRecord>();
+			try {
+				BufferedReader chunk = reader(channel, chunks.get(low)[0], chunks.get(low)[1], charset);
+				ProjectReader.readTasks(chunk, chunk.readLine(), records::add);
+			} catch(IOException e) {
+				throw new IllegalArgumentException("Unable to load file");
+			}
+			return records;
+		}
+	}
+}
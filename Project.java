@@ -2,31 +2,66 @@
  * project package as this is the central hub of the other classes to be used for the GUI
  */
 package edu.ncsu.csc216.wolf_tracker.model.project;
+import java.io.Closeable;
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import edu.ncsu.csc216.wolf_tracker.model.io.ProjectJournal;
 import edu.ncsu.csc216.wolf_tracker.model.io.ProjectWriter;
 import edu.ncsu.csc216.wolf_tracker.model.log.AbstractTaskLog;
 import edu.ncsu.csc216.wolf_tracker.model.log.AllTasksLog;
 import edu.ncsu.csc216.wolf_tracker.model.log.CategoryLog;
+import edu.ncsu.csc216.wolf_tracker.model.log.TaskLogSnapshot;
+import edu.ncsu.csc216.wolf_tracker.model.log.TaskStorage;
 import edu.ncsu.csc216.wolf_tracker.model.task.Task;
-import edu.ncsu.csc216.wolf_tracker.model.util.ILogList;
+import edu.ncsu.csc216.wolf_tracker.model.util.ArraySortedList;
 import edu.ncsu.csc216.wolf_tracker.model.util.ISortedList;
-import edu.ncsu.csc216.wolf_tracker.model.util.SortedList;
+import edu.ncsu.csc216.wolf_tracker.model.util.StringPool;
 /**
  * A way to hold a log of tasks that one project object has.
  * @author Dawn Pancholi
  * @author Emilie Athanasenas
  */
-public class Project {
+public class Project implements Closeable {
 	/** Name of the project */
 	private String projectName;
 	/** boolean to see if there's a change done to the project */
-	private boolean isChanged;
+	private volatile boolean isChanged;
+	/** number of changes made to the project, so other threads can tell when it was last edited */
+	private volatile int changeCount;
 	/** a list of categories for different types of tasks */
 	private ISortedList<CategoryLog> categories;
+	/** the categories by case-folded name, so they can be found without searching the list */
+	private Map<String, CategoryLog> categoryIndex;
 	/**	a log of tasks we're currently on */
 	private AbstractTaskLog currentLog;
 	/** All the different logs for different types of tasks */
 	private AllTasksLog allTasksLog;
+	/** Journal the project's changes are recorded in, or null if the project is not journaled */
+	private ProjectJournal journal;
+	/** Pool the task text is shared through in compact mode, or null if the project is not compact */
+	private StringPool stringPool;
+	/** Creates the storage for each log, or null if the logs use their default storage */
+	private Supplier<TaskStorage> storage;
+	/** File the details of lazily loaded tasks are read from, or null if every task's details are in memory */
+	private Closeable detailsFile;
+	/** Listeners told about the project's changes */
+	private final List<ProjectListener> listeners;
+	/** Events of the transaction in progress, or null if none have been recorded */
+	private List<ProjectEvent> pendingEvents;
+	/** Number of transactions begun and not yet ended */
+	private int transactionDepth;
 	
 	/**
 	 * Project constructor to make a project that'll belong in a SortedList
@@ -43,20 +78,148 @@ public class Project {
 
 		allTasksLog = new AllTasksLog();
 		currentLog = allTasksLog;
-		categories = new SortedList<CategoryLog>();
+		categories = new ArraySortedList<CategoryLog>();
+		categoryIndex = new HashMap<String, CategoryLog>();
+		listeners = new CopyOnWriteArrayList<ProjectListener>();
 		isChanged = true;
 	}
 	
 	/**
-	 * Saves project to a given file
+	 * Project constructor for a project whose logs keep their tasks in 
+	 * storage created by the given supplier, such as OffHeapTaskList for
+	 * very large projects
+	 * @param projectName name of this project
+	 * @param storage creates empty storage for each log
+	 * @throws IllegalArgumentException if the name is null, empty string, or equal to "All Tasks",
+	 * or storage is null
+	 */
+	public Project(String projectName, Supplier<TaskStorage> storage)
+	{
+		this(projectName);
+		if(storage == null)
+		{
+			throw new IllegalArgumentException("Invalid storage.");
+		}
+		this.storage = storage;
+		allTasksLog = new AllTasksLog(storage.get());
+		currentLog = allTasksLog;
+	}
+	
+	/**
+	 * Saves project to a given file. If the project is journaled to that 
+	 * file, only the changes since the last save are written.
 	 * @param aFile the file we're saving the project to
 	 */
 	public void saveProject(File aFile)
 	{
-		ProjectWriter.writeProjectFile(aFile, this);
+		if(journal != null && journal.isJournalFor(aFile))
+		{
+			journal.commit(this);
+		}
+		else
+		{
+			ProjectWriter.writeProjectFile(aFile, this);
+		}
 		isChanged = false;
 	}
 	
+	/**
+	 * Sets the file the details of lazily loaded tasks are read from, so
+	 * the project owns it and closes it in loadDetails or close
+	 * @param detailsFile the open file, or null if there is none
+	 */
+	public void setDetailsFile(Closeable detailsFile)
+	{
+		this.detailsFile = detailsFile;
+	}
+	
+	/**
+	 * Reads the details of every task that keeps them in a file into 
+	 * memory, then closes the file. Afterwards the project no longer holds
+	 * the file open, so it can be saved over on systems that do not allow
+	 * replacing an open file.
+	 * @throws IllegalArgumentException if the details cannot be read
+	 */
+	public void loadDetails()
+	{
+		if(detailsFile == null)
+		{
+			return;
+		}
+		try
+		{
+			for(Task task : allTasksLog.getTasks())
+			{
+				task.loadDetails();
+			}
+		}
+		catch(IllegalStateException e)
+		{
+			throw new IllegalArgumentException("Unable to load file");
+		}
+		close();
+	}
+	
+	/**
+	 * Closes the file the details of lazily loaded tasks are read from, if
+	 * there is one. Tasks whose details were not loaded into memory can no
+	 * longer return them, so this is for when the project is no longer 
+	 * used; call loadDetails to keep using it.
+	 * @throws IllegalArgumentException if the file cannot be closed
+	 */
+	@Override
+	public void close()
+	{
+		if(detailsFile == null)
+		{
+			return;
+		}
+		try
+		{
+			detailsFile.close();
+		}
+		catch(IOException e)
+		{
+			throw new IllegalArgumentException("Unable to close file.");
+		}
+		finally
+		{
+			detailsFile = null;
+		}
+	}
+	
+	/**
+	 * Turns compact mode on or off. In compact mode, task titles and 
+	 * details are shared through a pool owned by the project, so tasks
+	 * with the same text keep one copy of it. Turning compact mode on
+	 * shares the text of the tasks already in the project.
+	 * @param compact true to turn compact mode on
+	 */
+	public void setCompact(boolean compact)
+	{
+		if(!compact)
+		{
+			stringPool = null;
+		}
+		else if(stringPool == null)
+		{
+			stringPool = new StringPool();
+			for(Task task : allTasksLog.getTasks())
+			{
+				task.compact(stringPool);
+			}
+		}
+	}
+	
+	/**
+	 * Returns whether the project is in compact mode
+	 * @return true if task text is shared through the project's pool
+	 */
+	public boolean isCompact()
+	{
+		return stringPool != null;
+	}
+	
 	/**
 	 * Saves project statistics to a given file
 	 * @param aFile the file we're saving the stats to
@@ -88,11 +251,121 @@ public class Project {
 		return isChanged;
 	}
 	/**
-	 * Setter for the isChanged field
+	 * Setter for the isChanged field. Marking the project as changed also
+	 * counts as a change.
 	 * @param isChanged the isChanged to set
 	 */
 	public void setChanged(boolean isChanged) {
 		this.isChanged = isChanged;
+		if(isChanged) {
+			changeCount++;
+		}
+	}
+	/**
+	 * Getter for the number of changes made to the project since it was
+	 * created. The count only goes up, so it can be compared between two 
+	 * points in time to tell whether the project was edited in between.
+	 * @return number of changes made to the project
+	 */
+	public int getChangeCount() {
+		return changeCount;
+	}
+	
+	/**
+	 * Getter for the journal the project's changes are recorded in
+	 * @return the journal, or null if the project is not journaled
+	 */
+	public ProjectJournal getJournal() {
+		return journal;
+	}
+	/**
+	 * Setter for the journal the project's changes are recorded in
+	 * @param journal the journal to record changes in, or null to stop journaling
+	 */
+	public void setJournal(ProjectJournal journal) {
+		this.journal = journal;
+	}
+	
+	/**
+	 * Registers a listener to be told about each transaction's changes
+	 * @param listener to register
+	 * @throws IllegalArgumentException if the listener is null
+	 */
+	public void addProjectListener(ProjectListener listener) {
+		if(listener == null) {
+			throw new IllegalArgumentException("Invalid listener.");
+		}
+		listeners.add(listener);
+	}
+	
+	/**
+	 * Stops telling a listener about the project's changes
+	 * @param listener to remove
+	 */
+	public void removeProjectListener(ProjectListener listener) {
+		listeners.remove(listener);
+	}
+	
+	/**
+	 * Begins a transaction. The changes made until the matching call to 
+	 * endTransaction are sent to listeners as a single batch. Transactions
+	 * may be nested; only the outermost one sends its batch.
+	 */
+	public void beginTransaction() {
+		transactionDepth++;
+	}
+	
+	/**
+	 * Ends a transaction, sending its changes to the listeners if it is the
+	 * outermost transaction and it changed the project
+	 * @throws IllegalStateException if no transaction has begun
+	 */
+	public void endTransaction() {
+		if(transactionDepth == 0) {
+			throw new IllegalStateException("No transaction to end.");
+		}
+		transactionDepth--;
+		publishEvents();
+	}
+	
+	/**
+	 * Records a change to a task for the listeners. Nothing is recorded if
+	 * there are no listeners.
+	 * @param type kind of change
+	 * @param logName name of the log the task changed in
+	 * @param index index of the task in the log
+	 * @param task the task changed
+	 */
+	private void recordTaskEvent(ProjectEvent.Type type, String logName, int index, Task task) {
+		if(!listeners.isEmpty()) {
+			recordEvent(ProjectEvent.taskChanged(type, logName, index, task));
+		}
+	}
+	
+	/**
+	 * Records a change for the listeners in the transaction in progress
+	 * @param event the change
+	 */
+	private void recordEvent(ProjectEvent event) {
+		if(pendingEvents == null) {
+			pendingEvents = new ArrayList<ProjectEvent>();
+		}
+		pendingEvents.add(event);
+	}
+	
+	/**
+	 * Sends the recorded changes to the listeners as one batch, unless a 
+	 * transaction is still in progress
+	 */
+	private void publishEvents() {
+		if(transactionDepth > 0 || pendingEvents == null) {
+			return;
+		}
+		List<ProjectEvent> events = Collections.unmodifiableList(pendingEvents);
+		pendingEvents = null;
+		for(ProjectListener listener : listeners) {
+			listener.projectChanged(events);
+		}
 	}
 	
 	/**
@@ -106,18 +379,24 @@ public class Project {
 		{
 			throw new IllegalArgumentException("Invalid name.");
 		}
-		for(int i = 0; i < categories.size(); i++)
+		if(categoryIndex.containsKey(foldCase(category)))
 		{
-			if(categories.get(i).getName().equals(category))
-			{
-				throw new IllegalArgumentException("Invalid name.");
-			}
+			throw new IllegalArgumentException("Invalid name.");
 		}
-		CategoryLog aLog = new CategoryLog(category);
-		currentLog = aLog;
+		CategoryLog aLog = storage == null ? new CategoryLog(category) : new CategoryLog(category, storage.get());
 		categories.add(aLog);
+		categoryIndex.put(foldCase(category), aLog);
 		currentLog = aLog;
-		isChanged = true;
+		setChanged(true);
+		if(journal != null)
+		{
+			journal.categoryAdded(category);
+		}
+		if(!listeners.isEmpty())
+		{
+			recordEvent(ProjectEvent.categoryChanged(ProjectEvent.Type.CATEGORY_ADDED, category));
+		}
+		publishEvents();
 	}
 	
 	/**
@@ -128,30 +407,90 @@ public class Project {
 	{
 		String[] categoryNames = new String[categories.size() + 1];
 		categoryNames[0] = AllTasksLog.ALL_TASKS_NAME;
-		for(int i = 1; i < categories.size() + 1; i++)
+		int i = 1;
+		for(CategoryLog log : categories)
 		{
-			categoryNames[i] = categories.get(i - 1).getName();
+			categoryNames[i++] = log.getName();
 		}
 		return categoryNames;
 	}
 	
+	/**
+	 * Getter for the category logs in sorted order. The returned array is a
+	 * copy, so later changes to the project's categories do not affect it.
+	 * @return an Array of all the category logs
+	 */
+	public CategoryLog[] getCategoryLogs()
+	{
+		CategoryLog[] categoryLogs = new CategoryLog[categories.size()];
+		int i = 0;
+		for(CategoryLog log : categories)
+		{
+			categoryLogs[i++] = log;
+		}
+		return categoryLogs;
+	}
+	
+	/**
+	 * Getter for the log of all the tasks in the project
+	 * @return the All Tasks log
+	 */
+	public AllTasksLog getAllTasksLog()
+	{
+		return allTasksLog;
+	}
+	
+	/**
+	 * Takes an unmodifiable snapshot of the project as it is now, which 
+	 * can be read, saved, or exported on another thread while the project
+	 * keeps changing. The logs share their storage with the snapshot until
+	 * they next change, so taking it costs O(1) per log and does not copy
+	 * any tasks.
+	 * @return snapshot of the project
+	 */
+	public ProjectSnapshot snapshot()
+	{
+		CategoryLog[] categoryLogs = getCategoryLogs();
+		TaskLogSnapshot[] categorySnapshots = new TaskLogSnapshot[categoryLogs.length];
+		for(int i = 0; i < categoryLogs.length; i++)
+		{
+			categorySnapshots[i] = categoryLogs[i].snapshot();
+		}
+		return new ProjectSnapshot(projectName, categoryLogs, categorySnapshots, allTasksLog.snapshot(), changeCount);
+	}
+	
+	/**
+	 * Getter for a task log by name, without changing the current log
+	 * @param logName name of a category, or "All Tasks"
+	 * @return the task log with that name
+	 * @throws IllegalArgumentException if there is no log with that name
+	 */
+	public AbstractTaskLog getTaskLog(String logName)
+	{
+		if(AllTasksLog.ALL_TASKS_NAME.equals(logName))
+		{
+			return allTasksLog;
+		}
+		CategoryLog log = getCategoryLog(logName);
+		if(log == null)
+		{
+			throw new IllegalArgumentException("Invalid name.");
+		}
+		return log;
+	}
+	
 	/**
 	 * Setter for the currentTaskLog to change the task log we're in
 	 * @param currentTaskLog the Task Log we're within
 	 */
 	public void setCurrentTaskLog(String currentTaskLog)
 	{
-		//CategoryLog aLog = new CategoryLog(currentTaskLog);
-		boolean flag = false;
-		for(int i = 0; i < categories.size(); i++)
+		CategoryLog log = getCategoryLog(currentTaskLog);
+		if(log != null)
 		{
-			if(categories.get(i).getName().equals(currentTaskLog))
-			{
-				currentLog = categories.get(i);
-				flag = true;
-			}
+			currentLog = log;
 		}
-		if(!flag)
+		else
 		{
 			currentLog = allTasksLog;
 		}
@@ -177,29 +516,35 @@ public class Project {
 		{
 			throw new IllegalArgumentException("Invalid name.");
 		}
-		for(int i = 0; i < categories.size(); i++)
+		if(categoryIndex.containsKey(foldCase(categoryName)))
 		{
-			if(categories.get(i).getName().equalsIgnoreCase(categoryName))
-			{
-				throw new IllegalArgumentException("Invalid name.");
-			}
+			throw new IllegalArgumentException("Invalid name.");
 		}
 		if(currentLog instanceof AllTasksLog)
 		{
 			throw new IllegalArgumentException("The All Tasks log may not be edited.");
 		}
 		
-		
-		for(int i = 0; i < categories.size(); i++)
+		CategoryLog renamedLog = (CategoryLog) currentLog;
+		int idx = categories.indexOf(renamedLog);
+		if(idx >= 0)
 		{
-			if(categories.get(i).equals(currentLog))
+			CategoryLog removedLog = categories.remove(idx);
+			String oldName = removedLog.getName();
+			categoryIndex.remove(foldCase(oldName));
+			removedLog.setTaskLogName(categoryName);
+			categories.add(removedLog);
+			categoryIndex.put(foldCase(categoryName), removedLog);
+			setChanged(true);
+			if(journal != null)
+			{
+				journal.categoryRenamed(oldName, categoryName);
+			}
+			if(!listeners.isEmpty())
 			{
-				CategoryLog removedLog = categories.remove(i);
-				removedLog.setTaskLogName(categoryName);
-				categories.add(removedLog);
-				isChanged = true;
-				break;
+				recordEvent(ProjectEvent.categoryRenamed(oldName, categoryName));
 			}
+			publishEvents();
 		}
 	}
 	
@@ -213,26 +558,25 @@ public class Project {
 		{
 			throw new IllegalArgumentException("The All Tasks log may not be deleted.");
 		}
-		for(int i = 0; i < categories.size(); i++)
+		int idx = categories.indexOf((CategoryLog) currentLog);
+		if(idx >= 0)
 		{
-			if(categories.get(i).getName().equals(currentLog.getName()))
-			{
-				categories.remove(i);
-				break;
-			}
+			categories.remove(idx);
+			categoryIndex.remove(foldCase(currentLog.getName()));
 		}
-		ILogList<Task> newListOfTasks = allTasksLog.getTasks();
 		String currentLogName = currentLog.getName();
-		for(int j = 0; j < newListOfTasks.size(); j++)
+		allTasksLog.removeCategoryTasks((CategoryLog) currentLog);
+		currentLog = allTasksLog;
+		setChanged(true);
+		if(journal != null)
 		{
-			if(newListOfTasks.getLog(j).getCategoryName().equals(currentLogName))
-			{
-				newListOfTasks.removeLog(j);
-				j--;
-			}
+			journal.categoryRemoved(currentLogName);
 		}
-		currentLog = allTasksLog;
-		isChanged = true;
+		if(!listeners.isEmpty())
+		{
+			recordEvent(ProjectEvent.categoryChanged(ProjectEvent.Type.CATEGORY_REMOVED, currentLogName));
+		}
+		publishEvents();
 	}
 	
 	/**
@@ -243,15 +587,116 @@ public class Project {
 	{
 		if(currentLog instanceof CategoryLog)
 		{
+			if(stringPool != null)
+			{
+				addedTask.compact(stringPool);
+			}
 			currentLog.addTask(addedTask);
 			allTasksLog.addTask(addedTask);
-			isChanged = true;
+			setChanged(true);
+			if(journal != null)
+			{
+				journal.taskAdded(currentLog.getName(), addedTask);
+			}
+			recordTaskEvent(ProjectEvent.Type.TASK_ADDED, currentLog.getName(), currentLog.getTaskCount() - 1, addedTask);
+			recordTaskEvent(ProjectEvent.Type.TASK_ADDED, allTasksLog.getName(), allTasksLog.getTaskCount() - 1, addedTask);
+			publishEvents();
 		}
 		
 	}
 	
 	/**
-	 * method to edit a task at a certain index by creating a new task to take its place
+	 * Adds a batch of tasks to a category. The category and All Tasks each
+	 * make room for the batch once, and the project is marked changed once.
+	 * The current log is not changed.
+	 * @param categoryName name of the category to add the tasks to
+	 * @param addedTasks tasks being added, in order
+	 * @throws IllegalArgumentException if there is no category with that 
+	 * name, or a task is null, already has a category, or is in the batch
+	 * more than once, in which case no task is added
+	 */
+	public void addTasks(String categoryName, Collection<Task> addedTasks)
+	{
+		addTasks(Collections.singletonMap(categoryName, addedTasks));
+	}
+	
+	/**
+	 * Adds batches of tasks to several categories. Each category's batch is
+	 * added to it in one step, All Tasks receives every batch in one step 
+	 * in the order the map iterates them, and the project is marked changed
+	 * once. The current log is not changed.
+	 * @param addedTasks tasks being added, in order, by category name
+	 * @throws IllegalArgumentException if a category name is not in the 
+	 * project, or a task is null, already has a category, or is in the 
+	 * batches more than once, in which case no task is added
+	 */
+	public void addTasks(Map<String, ? extends Collection<Task>> addedTasks)
+	{
+		Map<CategoryLog, Collection<Task>> batches = new LinkedHashMap<CategoryLog, Collection<Task>>();
+		Set<Task> checked = Collections.newSetFromMap(new IdentityHashMap<Task, Boolean>());
+		List<Task> allAddedTasks = new ArrayList<Task>();
+		for(Map.Entry<String, ? extends Collection<Task>> batch : addedTasks.entrySet())
+		{
+			CategoryLog log = getCategoryLog(batch.getKey());
+			if(log == null)
+			{
+				throw new IllegalArgumentException("Invalid name.");
+			}
+			for(Task task : batch.getValue())
+			{
+				if(task == null || task.getCategory() != null || !checked.add(task))
+				{
+					throw new IllegalArgumentException("Incomplete task information.");
+				}
+			}
+			batches.put(log, batch.getValue());
+			allAddedTasks.addAll(batch.getValue());
+		}
+		if(allAddedTasks.isEmpty())
+		{
+			return;
+		}
+		for(Map.Entry<CategoryLog, Collection<Task>> batch : batches.entrySet())
+		{
+			if(stringPool != null)
+			{
+				for(Task task : batch.getValue())
+				{
+					task.compact(stringPool);
+				}
+			}
+			CategoryLog log = batch.getKey();
+			int index = log.getTaskCount();
+			log.addTasks(batch.getValue());
+			for(Task task : batch.getValue())
+			{
+				recordTaskEvent(ProjectEvent.Type.TASK_ADDED, log.getName(), index++, task);
+			}
+		}
+		int allTasksIndex = allTasksLog.getTaskCount();
+		allTasksLog.addTasks(allAddedTasks);
+		for(Task task : allAddedTasks)
+		{
+			recordTaskEvent(ProjectEvent.Type.TASK_ADDED, allTasksLog.getName(), allTasksIndex++, task);
+		}
+		setChanged(true);
+		if(journal != null)
+		{
+			for(Map.Entry<CategoryLog, Collection<Task>> batch : batches.entrySet())
+			{
+				for(Task task : batch.getValue())
+				{
+					journal.taskAdded(batch.getKey().getName(), task);
+				}
+			}
+		}
+		publishEvents();
+	}
+	
+	/**
+	 * method to edit a task at a certain index by creating a new task to take its place.
+	 * The new task keeps the task ID, and the old task is left unchanged for any 
+	 * snapshots that hold it.
 	 * @param index index of the task we're modifying
 	 * @param title title of our edited task
 	 * @param duration duration of our edited task
@@ -259,49 +704,108 @@ public class Project {
 	 */
 	public void editTask(int index, String title, int duration, String details)
 	{
-		Task editedTask = currentLog.getTask(index);
-		editedTask.setTaskTitle(title);
-		editedTask.setTaskDuration(duration);
-		editedTask.setTaskDetails(details);
-		isChanged = true;
+		Task oldTask = currentLog.getTask(index);
+		Task editedTask = new Task(oldTask.getTaskId(), title, duration, details);
+		if(stringPool != null)
+		{
+			editedTask.compact(stringPool);
+		}
+		CategoryLog category = oldTask.getCategory();
+		int categoryIndex = category == null ? -1 : category.indexOf(oldTask);
+		if(categoryIndex >= 0)
+		{
+			category.setTask(categoryIndex, editedTask);
+			recordTaskEvent(ProjectEvent.Type.TASK_EDITED, category.getName(), categoryIndex, editedTask);
+		}
+		int allTasksIndex = allTasksLog.indexOf(oldTask);
+		if(allTasksIndex >= 0)
+		{
+			allTasksLog.setTask(allTasksIndex, editedTask);
+			recordTaskEvent(ProjectEvent.Type.TASK_EDITED, allTasksLog.getName(), allTasksIndex, editedTask);
+		}
+		setChanged(true);
+		if(journal != null && categoryIndex >= 0)
+		{
+			journal.taskEdited(category.getName(), categoryIndex, editedTask);
+		}
+		publishEvents();
 	}
 	
 	/**
 	 * Method to remove a task from our logs given a certain index
-	 * It also modifies the isChanged variable to true assuming everything is done right
+	 * It also modifies the isChanged variable to true assuming everything is done right.
+	 * The task's position in the other log is looked up by its task ID.
 	 * @param index index of the task we're removing
 	 */
 	public void removeTask(int index)
 	{
-		//categories.remove(index);
 		if(currentLog instanceof CategoryLog)
 		{
 			Task removedTask = currentLog.removeTask(index);
-			for(int i = 0; i < allTasksLog.getTaskCount(); i++)
+			if(journal != null)
 			{
-				if(allTasksLog.getTask(i).equals(removedTask))
-				{
-					allTasksLog.removeTask(i);
-				}
-			}				
+				journal.taskRemoved(currentLog.getName(), index);
+			}
+			recordTaskEvent(ProjectEvent.Type.TASK_REMOVED, currentLog.getName(), index, removedTask);
+			int allTasksIndex = allTasksLog.indexOf(removedTask);
+			if(allTasksIndex >= 0)
+			{
+				allTasksLog.removeTask(allTasksIndex);
+				recordTaskEvent(ProjectEvent.Type.TASK_REMOVED, allTasksLog.getName(), allTasksIndex, removedTask);
+			}
 		}
 		else
 		{
 			Task removedTask = allTasksLog.removeTask(index);
+			recordTaskEvent(ProjectEvent.Type.TASK_REMOVED, allTasksLog.getName(), index, removedTask);
 
-			String removedTaskCategoryName = removedTask.getCategoryName();
-			setCurrentTaskLog(removedTaskCategoryName);
-
-			for(int i = 0; i < currentLog.getTaskCount(); i++)
+			CategoryLog category = getCategoryLog(removedTask.getCategoryName());
+			int categoryIndex = category == null ? -1 : category.indexOf(removedTask);
+			if(categoryIndex >= 0)
 			{
-				if(currentLog.getTask(i).equals(removedTask))
+				category.removeTask(categoryIndex);
+				if(journal != null)
 				{
-					currentLog.removeTask(i);
+					journal.taskRemoved(category.getName(), categoryIndex);
 				}
+				recordTaskEvent(ProjectEvent.Type.TASK_REMOVED, category.getName(), categoryIndex, removedTask);
 			}
-			currentLog = allTasksLog;
 		}
-		isChanged = true;
+		setChanged(true);
+		publishEvents();
+	}
+	
+	/**
+	 * Finds the category log with exactly the given name
+	 * @param categoryName name of the category
+	 * @return the category log, or null if there is no such category
+	 */
+	private CategoryLog getCategoryLog(String categoryName)
+	{
+		if(categoryName == null)
+		{
+			return null;
+		}
+		CategoryLog log = categoryIndex.get(foldCase(categoryName));
+		if(log != null && log.getName().equals(categoryName))
+		{
+			return log;
+		}
+		return null;
+	}
+	
+	/**
+	 * Folds the case of a category name the same way CategoryLog.compareTo
+	 * ignores case, so names that compare as equal have the same key in the
+	 * category index
+	 * @param categoryName name to fold
+	 * @return the case-folded name
+	 */
+	private static String foldCase(String categoryName)
+	{
+		StringBuilder folded = new StringBuilder(categoryName.length());
+		categoryName.codePoints().forEach(c -> folded.appendCodePoint(Character.toLowerCase(Character.toUpperCase(c))));
+		return folded.toString();
 	}
 	
 	/**
@@ -311,21 +815,24 @@ public class Project {
 	public String[][] getMostRecentTasks()
 	{
 		String[][] mostRecentTasks = new String[categories.size()][3];
-		for(int i = 0; i < categories.size(); i++)
+		int i = 0;
+		for(CategoryLog log : categories)
 		{
 			
-			if(categories.get(i).getTaskCount() == 0)
+			if(log.getTaskCount() == 0)
 			{
 				mostRecentTasks[i][0] = "None";
 				mostRecentTasks[i][1] = "";
-				mostRecentTasks[i][2] = categories.get(i).getName();
+				mostRecentTasks[i][2] = log.getName();
 			}
 			else
 			{
-				mostRecentTasks[i][0] = categories.get(i).getTask(categories.get(i).getTaskCount() - 1).getTaskTitle();
-				mostRecentTasks[i][1] = Integer.toString(categories.get(i).getTask(categories.get(i).getTaskCount() - 1).getTaskDuration());
-				mostRecentTasks[i][2] = categories.get(i).getName();
+				Task mostRecentTask = log.getTask(log.getTaskCount() - 1);
+				mostRecentTasks[i][0] = mostRecentTask.getTaskTitle();
+				mostRecentTasks[i][1] = Integer.toString(mostRecentTask.getTaskDuration());
+				mostRecentTasks[i][2] = log.getName();
 			}
+			i++;
 		}
 		return mostRecentTasks;
 	}
@@ -0,0 +1,217 @@
+/**
+ * IO package since we're utilizing a file to write to
+ */
+package edu.ncsu.csc216.wolf_tracker.model.io;
+
+import java.io.File;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import edu.ncsu.csc216.wolf_tracker.model.project.ConcurrentProject;
+
+/**
+ * ProjectAutosaver saves a project in the background once it stops being
+ * edited. A burst of edits is saved once, after the project has gone
+ * without changes for the quiet period, or once the maximum delay has passed
+ * since the first unsaved edit, whichever comes first. Saves go through 
+ * ConcurrentProject.saveProject, so they are written to a temporary file 
+ * and renamed over the target, or appended to the project's journal.
+ * 
+ * Saves run on the autosaver's own thread, so the project is shared 
+ * through a ConcurrentProject: every edit must be made through the same
+ * facade, which keeps a save from seeing or dropping an edit in progress.
+ * Edits made while a save is written are saved on a later check.
+ * 
+ * A failed save is retried after a backoff that starts at the quiet period
+ * and doubles with each failure in a row, up to MAX_BACKOFF_MILLIS, so a 
+ * full disk or a file that cannot be written is not rewritten on every 
+ * check. Each failure is passed to the failure listener, if one is set.
+ * @author Emilie Athanasenas
+ */
+public class ProjectAutosaver {
+	
+	/** Longest wait in milliseconds before a failed save is retried */
+	public static final long MAX_BACKOFF_MILLIS = 60 * 1000;
+	
+	/** Project that is saved */
+	private final ConcurrentProject project;
+	/** File the project is saved to */
+	private final File file;
+	/** Nanoseconds without an edit before the project is saved */
+	private final long quietNanos;
+	/** Nanoseconds after the first unsaved edit by which the project is saved */
+	private final long maxDelayNanos;
+	/** Milliseconds between checks for changes */
+	private final long pollMillis;
+	/** Thread the checks and saves run on, or null if the autosaver is stopped */
+	private ScheduledExecutorService scheduler;
+	/** Change count of the project when it was last saved */
+	private int savedCount;
+	/** Change count of the project when it was last checked */
+	private int lastCount;
+	/** Time of the first edit that has not been saved */
+	private long firstChange;
+	/** Time the change count was last seen to move */
+	private long lastChange;
+	/** True if there are edits that have not been saved */
+	private boolean pending;
+	/** Exception thrown by the most recent failed save, or null if it succeeded */
+	private volatile RuntimeException lastFailure;
+	/** Number of saves that have failed in a row */
+	private int failures;
+	/** Time before which a failed save is not retried */
+	private long retryAt;
+	/** Told about each failed save, or null */
+	private volatile Consumer<? super RuntimeException> failureListener;
+	
+	/**
+	 * Constructs a ProjectAutosaver. The autosaver does nothing until it is started.
+	 * @param project the project to save, which must only be edited through
+	 * this facade
+	 * @param file the file to save the project to
+	 * @param quietMillis milliseconds without an edit before the project is saved
+	 * @param maxDelayMillis milliseconds after the first unsaved edit by which the project is saved
+	 * @throws IllegalArgumentException if the project or file is null or the delays are not positive
+	 */
+	public ProjectAutosaver(ConcurrentProject project, File file, long quietMillis, long maxDelayMillis) {
+		if(project == null || file == null) {
+			throw new IllegalArgumentException("Invalid file or project.");
+		}
+		if(quietMillis <= 0 || maxDelayMillis < quietMillis) {
+			throw new IllegalArgumentException("Invalid delay.");
+		}
+		this.project = project;
+		this.file = file;
+		this.quietNanos = TimeUnit.MILLISECONDS.toNanos(quietMillis);
+		this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+		this.pollMillis = Math.max(1, quietMillis / 4);
+	}
+	
+	/**
+	 * Starts watching the project for changes. A project that is already 
+	 * changed when the autosaver starts is saved after the quiet period.
+	 */
+	public synchronized void start() {
+		if(scheduler != null) {
+			return;
+		}
+		savedCount = project.isChanged() ? project.getChangeCount() - 1 : project.getChangeCount();
+		pending = false;
+		failures = 0;
+		scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "WolfTracker autosave");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(this::check, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Stops watching the project and waits for a save in progress to finish.
+	 * Edits that have not been saved yet are saved on the calling thread.
+	 * @throws IllegalArgumentException if the final save fails
+	 */
+	public synchronized void stop() {
+		if(scheduler == null) {
+			return;
+		}
+		scheduler.shutdown();
+		try {
+			scheduler.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		scheduler = null;
+		if(project.getChangeCount() != savedCount) {
+			save();
+			if(lastFailure != null) {
+				throw lastFailure;
+			}
+		}
+	}
+	
+	/**
+	 * Returns the exception thrown by the most recent save if it failed
+	 * @return the exception, or null if the most recent save succeeded
+	 */
+	public RuntimeException getLastFailure() {
+		return lastFailure;
+	}
+	
+	/**
+	 * Sets the listener told about each failed save. The listener is called
+	 * on the thread that ran the save, which is the autosaver's own thread
+	 * except for the final save made by stop.
+	 * @param listener to tell about failed saves, or null for none
+	 */
+	public void setFailureListener(Consumer<? super RuntimeException> listener) {
+		failureListener = listener;
+	}
+	
+	/**
+	 * Checks whether the project was edited since it was last saved, and 
+	 * saves it once the quiet period or the maximum delay has passed
+	 */
+	private void check() {
+		int count = project.getChangeCount();
+		long now = System.nanoTime();
+		if(count == savedCount) {
+			pending = false;
+			return;
+		}
+		if(!pending) {
+			pending = true;
+			firstChange = now;
+			lastChange = now;
+			lastCount = count;
+		} else if(count != lastCount) {
+			lastChange = now;
+			lastCount = count;
+		}
+		if(failures > 0 && now - retryAt < 0) {
+			return;
+		}
+		if(now - lastChange >= quietNanos || now - firstChange >= maxDelayNanos) {
+			save();
+		}
+	}
+	
+	/**
+	 * Saves the project. Edits made while it was being saved move the 
+	 * change count past the saved count, so they are saved later. A failed
+	 * save is reported to the failure listener and delays the next retry.
+	 */
+	private void save() {
+		int count = project.getChangeCount();
+		try {
+			project.saveProject(file);
+		} catch(RuntimeException e) {
+			lastFailure = e;
+			failures++;
+			retryAt = System.nanoTime() + backoffNanos();
+			Consumer<? super RuntimeException> listener = failureListener;
+			if(listener != null) {
+				listener.accept(e);
+			}
+			return;
+		}
+		lastFailure = null;
+		failures = 0;
+		pending = false;
+		savedCount = count;
+	}
+	
+	/**
+	 * Returns how long to wait before retrying after the failures so far:
+	 * the quiet period, doubled for each failure after the first, up to 
+	 * MAX_BACKOFF_MILLIS
+	 * @return nanoseconds to wait before the next retry
+	 */
+	private long backoffNanos() {
+		long max = Math.max(quietNanos, TimeUnit.MILLISECONDS.toNanos(MAX_BACKOFF_MILLIS));
+		int shift = Math.min(failures - 1, Long.numberOfLeadingZeros(quietNanos) - 1);
+		return Math.min(quietNanos << shift, max);
+	}
+}
@@ -0,0 +1,154 @@
+/**
+ * project package as this describes a change made to a project
+ */
+package edu.ncsu.csc216.wolf_tracker.model.project;
+
+import edu.ncsu.csc216.wolf_tracker.model.task.Task;
+
+/**
+ * A single change made to a project, sent to ProjectListeners. Task events
+ * give the log and the index the change was made at, so a view of that log
+ * can patch only the affected row. A task added to or removed from a 
+ * category gives one event for the category and one for All Tasks.
+ * 
+ * Indexes are those of the log right after the change, so the events of a
+ * batch apply in order. Removing a category gives a single event and no 
+ * events for the tasks All Tasks loses with it.
+ * @author Emilie Athanasenas
+ */
+public class ProjectEvent {
+	
+	/**
+	 * Kinds of change made to a project
+	 */
+	public enum Type {
+		/** A task was added at the index */
+		TASK_ADDED,
+		/** The task at the index was replaced with an edited task */
+		TASK_EDITED,
+		/** The task at the index was removed */
+		TASK_REMOVED,
+		/** A category was added */
+		CATEGORY_ADDED,
+		/** A category was renamed */
+		CATEGORY_RENAMED,
+		/** A category and its tasks were removed */
+		CATEGORY_REMOVED
+	}
+	
+	/** Kind of change */
+	private final Type type;
+	/** Name of the log changed, or of the category after a rename */
+	private final String logName;
+	/** Name of the category before a rename, or null for other changes */
+	private final String oldName;
+	/** Index of the changed task, or -1 for category changes */
+	private final int index;
+	/** Task added, edited, or removed, or null for category changes */
+	private final Task task;
+	
+	/**
+	 * Constructs a ProjectEvent
+	 * @param type kind of change
+	 * @param logName name of the log changed
+	 * @param oldName name of the category before a rename, or null
+	 * @param index index of the changed task, or -1
+	 * @param task task changed, or null
+	 */
+	private ProjectEvent(Type type, String logName, String oldName, int index, Task task) {
+		this.type = type;
+		this.logName = logName;
+		this.oldName = oldName;
+		this.index = index;
+		this.task = task;
+	}
+	
+	/**
+	 * Creates an event for a change to a task
+	 * @param type TASK_ADDED, TASK_EDITED, or TASK_REMOVED
+	 * @param logName name of the log the task changed in
+	 * @param index index of the task in the log
+	 * @param task the added task, the task after the edit, or the removed task
+	 * @return the event
+	 */
+	static ProjectEvent taskChanged(Type type, String logName, int index, Task task) {
+		return new ProjectEvent(type, logName, null, index, task);
+	}
+	
+	/**
+	 * Creates an event for a category that was added or removed
+	 * @param type CATEGORY_ADDED or CATEGORY_REMOVED
+	 * @param categoryName name of the category
+	 * @return the event
+	 */
+	static ProjectEvent categoryChanged(Type type, String categoryName) {
+		return new ProjectEvent(type, categoryName, null, -1, null);
+	}
+	
+	/**
+	 * Creates an event for a category that was renamed
+	 * @param oldName name of the category before the rename
+	 * @param newName name of the category after the rename
+	 * @return the event
+	 */
+	static ProjectEvent categoryRenamed(String oldName, String newName) {
+		return new ProjectEvent(Type.CATEGORY_RENAMED, newName, oldName, -1, null);
+	}
+	
+	/**
+	 * Gets the kind of change
+	 * @return the type of the event
+	 */
+	public Type getType() {
+		return type;
+	}
+	
+	/**
+	 * Gets the name of the log that changed. For a renamed category this is
+	 * the new name.
+	 * @return name of the log
+	 */
+	public String getLogName() {
+		return logName;
+	}
+	
+	/**
+	 * Gets the name a renamed category had before the rename
+	 * @return the old name, or null if the event is not a rename
+	 */
+	public String getOldName() {
+		return oldName;
+	}
+	
+	/**
+	 * Gets the index of the task that changed
+	 * @return index of the task in the log, or -1 for a category change
+	 */
+	public int getIndex() {
+		return index;
+	}
+	
+	/**
+	 * Gets the task that changed: the added task, the task after an edit,
+	 * or the removed task
+	 * @return the task, or null for a category change
+	 */
+	public Task getTask() {
+		return task;
+	}
+	
+	/**
+	 * Returns the event as a string of its type, log, and index
+	 * @return string form of the event
+	 */
+	@Override
+	public String toString() {
+		if(type == Type.CATEGORY_RENAMED) {
+			return type + "," + oldName + "," + logName;
+		}
+		if(task == null) {
+			return type + "," + logName;
+		}
+		return type + "," + logName + "," + index;
+	}
+}
@@ -0,0 +1,519 @@
+/**
+ * IO package since we're utilizing a file to read from and write to
+ */
+package edu.ncsu.csc216.wolf_tracker.model.io;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import edu.ncsu.csc216.wolf_tracker.model.log.AllTasksLog;
+import edu.ncsu.csc216.wolf_tracker.model.project.Project;
+import edu.ncsu.csc216.wolf_tracker.model.task.Task;
+
+/**
+ * ProjectJournal keeps an append-only log of the changes made to a Project
+ * next to the project file it was last saved to. Saving a journaled project
+ * only appends the changes made since the last save, and loading replays
+ * the journal over the saved project. Once the journal grows past its 
+ * compaction threshold, the whole project is written out again and the 
+ * journal starts over.
+ * 
+ * Changes to tasks are recorded by category name and index within that
+ * category, since the order of the All Tasks log is not kept by the text
+ * format. The journal starts with a checksum of the project file it applies
+ * to, so a journal left behind by an interrupted compaction is ignored 
+ * instead of being applied twice.
+ * 
+ * Records are added to the pending records and taken from them under the
+ * journal's lock, so a commit on another thread never splits a record or
+ * drops one added while it writes. The project itself is not thread-safe,
+ * so a commit that may compact must not run while the project is edited;
+ * ConcurrentProject commits under its write lock.
+ * @author Emilie Athanasenas
+ */
+public class ProjectJournal {
+	
+	/** Suffix added to the project file name to name its journal */
+	public static final String JOURNAL_SUFFIX = ".journal";
+	/** Default journal size in bytes after which the journal is compacted */
+	public static final long DEFAULT_COMPACT_THRESHOLD = 4 * 1024 * 1024;
+	/** Bytes every journal file starts with */
+	private static final byte[] MAGIC = {'W', 'T', 'P', 'J'};
+	/** Size of the journal header: the MAGIC bytes and the project file checksum */
+	private static final int HEADER_SIZE = MAGIC.length + 8;
+	
+	/** Record for an added category */
+	private static final int ADD_CATEGORY = 1;
+	/** Record for a renamed category */
+	private static final int RENAME_CATEGORY = 2;
+	/** Record for a removed category */
+	private static final int REMOVE_CATEGORY = 3;
+	/** Record for an added task */
+	private static final int ADD_TASK = 4;
+	/** Record for an edited task */
+	private static final int EDIT_TASK = 5;
+	/** Record for a removed task */
+	private static final int REMOVE_TASK = 6;
+	
+	/** Project file the journal applies to */
+	private final File projectFile;
+	/** File the journal records are appended to */
+	private final File journalFile;
+	/** Journal size in bytes after which the journal is compacted */
+	private final long compactThreshold;
+	/** Records that have not been appended to the journal file yet, guarded by the journal's lock */
+	private ByteArrayOutputStream pending;
+	/** Reusable buffer for building a single record */
+	private final ByteArrayOutputStream record;
+	/** Size of the journal file, or -1 if it does not match the project file, guarded by commitLock */
+	private long journalLength;
+	/** Lock held while the journal file is written, so commits run one at a time */
+	private final Object commitLock;
+	
+	/**
+	 * Constructs a ProjectJournal for the given project file with the 
+	 * default compaction threshold
+	 * @param projectFile the project file the journal applies to
+	 */
+	public ProjectJournal(File projectFile) {
+		this(projectFile, DEFAULT_COMPACT_THRESHOLD);
+	}
+	
+	/**
+	 * Constructs a ProjectJournal for the given project file
+	 * @param projectFile the project file the journal applies to
+	 * @param compactThreshold journal size in bytes after which the journal is compacted
+	 * @throws IllegalArgumentException if the file is null or the threshold is not positive
+	 */
+	public ProjectJournal(File projectFile, long compactThreshold) {
+		if(projectFile == null || compactThreshold <= 0) {
+			throw new IllegalArgumentException("Invalid file or project.");
+		}
+		this.projectFile = projectFile.getAbsoluteFile();
+		this.journalFile = new File(this.projectFile.getPath() + JOURNAL_SUFFIX);
+		this.compactThreshold = compactThreshold;
+		pending = new ByteArrayOutputStream();
+		record = new ByteArrayOutputStream();
+		journalLength = -1;
+		commitLock = new Object();
+	}
+	
+	/**
+	 * Loads a project file, replays its journal over it, and attaches a 
+	 * journal to the project so later saves to the file only append changes
+	 * @param file to be read in
+	 * @return Project object
+	 * @throws IllegalArgumentException if the file or its journal cannot be loaded
+	 */
+	public static Project openProject(File file) {
+		Project project = ProjectReader.readProjectFile(file);
+		ProjectJournal journal = new ProjectJournal(file);
+		try {
+			journal.replay(project);
+		} catch(IOException e) {
+			throw new IllegalArgumentException("Unable to load file");
+		}
+		project.setCurrentTaskLog(AllTasksLog.ALL_TASKS_NAME);
+		project.setJournal(journal);
+		return project;
+	}
+	
+	/**
+	 * Loads a project file and replays its journal over it without writing
+	 * to either file: a missing or stale journal is left as it is, a record
+	 * cut off at the end is skipped but not truncated, and no journal is 
+	 * attached to the project. The project file is only read a second time
+	 * to check the journal's checksum if the journal holds any records.
+	 * This is for readers of files that another process may be appending to.
+	 * @param file to be read in
+	 * @return Project object
+	 * @throws IllegalArgumentException if the file or its journal cannot be loaded
+	 */
+	public static Project readProject(File file) {
+		Project project = ProjectReader.readProjectFile(file);
+		ProjectJournal journal = new ProjectJournal(file);
+		try {
+			if(journal.journalFile.length() > HEADER_SIZE) {
+				journal.readRecords(project, checksum(journal.projectFile));
+			}
+		} catch(IOException e) {
+			throw new IllegalArgumentException("Unable to load file");
+		}
+		project.setCurrentTaskLog(AllTasksLog.ALL_TASKS_NAME);
+		return project;
+	}
+	
+	/**
+	 * Returns true if this journal applies to the given file
+	 * @param file to check
+	 * @return true if the file is the journal's project file
+	 */
+	public boolean isJournalFor(File file) {
+		return file != null && projectFile.equals(file.getAbsoluteFile());
+	}
+	
+	/**
+	 * Records that a category was added
+	 * @param categoryName name of the added category
+	 */
+	public synchronized void categoryAdded(String categoryName) {
+		record.reset();
+		record.write(ADD_CATEGORY);
+		writeStrings(categoryName);
+	}
+	
+	/**
+	 * Records that a category was renamed
+	 * @param oldName name of the category before it was renamed
+	 * @param newName name of the category after it was renamed
+	 */
+	public synchronized void categoryRenamed(String oldName, String newName) {
+		record.reset();
+		record.write(RENAME_CATEGORY);
+		writeStrings(oldName, newName);
+	}
+	
+	/**
+	 * Records that a category and its tasks were removed
+	 * @param categoryName name of the removed category
+	 */
+	public synchronized void categoryRemoved(String categoryName) {
+		record.reset();
+		record.write(REMOVE_CATEGORY);
+		writeStrings(categoryName);
+	}
+	
+	/**
+	 * Records that a task was added to the end of a category
+	 * @param categoryName name of the category the task was added to
+	 * @param task the added task
+	 */
+	public synchronized void taskAdded(String categoryName, Task task) {
+		record.reset();
+		record.write(ADD_TASK);
+		writeInt(task.getTaskDuration());
+		writeStrings(categoryName, task.getTaskTitle(), task.getTaskDetails());
+	}
+	
+	/**
+	 * Records that a task was edited
+	 * @param categoryName name of the category the task belongs to
+	 * @param index index of the task within its category
+	 * @param task the task after it was edited
+	 */
+	public synchronized void taskEdited(String categoryName, int index, Task task) {
+		record.reset();
+		record.write(EDIT_TASK);
+		writeInt(index);
+		writeInt(task.getTaskDuration());
+		writeStrings(categoryName, task.getTaskTitle(), task.getTaskDetails());
+	}
+	
+	/**
+	 * Records that a task was removed
+	 * @param categoryName name of the category the task belonged to
+	 * @param index index of the task within its category
+	 */
+	public synchronized void taskRemoved(String categoryName, int index) {
+		record.reset();
+		record.write(REMOVE_TASK);
+		writeInt(index);
+		writeStrings(categoryName);
+	}
+	
+	/**
+	 * Saves the changes recorded since the last commit. The changes are 
+	 * appended to the journal, unless there is no journal for the current 
+	 * project file yet or the journal has grown past the compaction 
+	 * threshold, in which case the whole project is written out and the 
+	 * journal starts over. The pending records are swapped out under the 
+	 * journal's lock before they are written, and put back in front of any
+	 * records added since if the commit fails.
+	 * @param project the project the changes were made to
+	 * @throws IllegalArgumentException if the changes cannot be saved
+	 */
+	public void commit(Project project) {
+		synchronized(commitLock) {
+			ByteArrayOutputStream batch = takePending();
+			try {
+				if(journalLength < 0 || !projectFile.exists() || journalLength + batch.size() > compactThreshold) {
+					compact(project);
+					return;
+				}
+				if(batch.size() == 0) {
+					return;
+				}
+				try(FileOutputStream out = new FileOutputStream(journalFile, true)) {
+					batch.writeTo(out);
+					out.getFD().sync();
+				}
+				journalLength += batch.size();
+			} catch(IOException | RuntimeException e) {
+				restorePending(batch);
+				if(e instanceof RuntimeException) {
+					throw (RuntimeException) e;
+				}
+				throw new IllegalArgumentException("Unable to write to file.");
+			}
+		}
+	}
+	
+	/**
+	 * Takes the pending records, leaving an empty buffer for new ones
+	 * @return the pending records
+	 */
+	private synchronized ByteArrayOutputStream takePending() {
+		ByteArrayOutputStream batch = pending;
+		pending = new ByteArrayOutputStream();
+		return batch;
+	}
+	
+	/**
+	 * Puts records that could not be committed back in front of the records
+	 * added since they were taken
+	 * @param batch records that were taken
+	 */
+	private synchronized void restorePending(ByteArrayOutputStream batch) {
+		try {
+			pending.writeTo(batch);
+		} catch(IOException e) {
+			throw new IllegalStateException(e);
+		}
+		pending = batch;
+	}
+	
+	/**
+	 * Writes the whole project to the project file and starts a new, empty
+	 * journal for it. The project file is written in the format it is 
+	 * already in, binary or text and compressed or not; a new project file
+	 * is written as text, compressed if its name ends in COMPRESSED_SUFFIX.
+	 * The project file holds every change, so the records taken for the 
+	 * commit are dropped.
+	 * @param project to write out
+	 * @throws IOException if the project file or journal cannot be read or written
+	 */
+	private void compact(Project project) throws IOException {
+		journalLength = -1;
+		boolean binary = false;
+		boolean compressed = projectFile.getName().endsWith(ProjectWriter.COMPRESSED_SUFFIX);
+		if(projectFile.length() > 0) {
+			binary = ProjectReader.isBinary(projectFile);
+			compressed = ProjectReader.isCompressed(projectFile);
+		}
+		ProjectWriter.writeProjectFile(projectFile, project.snapshot(), binary, compressed);
+		startJournal(checksum(projectFile));
+	}
+	
+	/**
+	 * Replaces the journal file with an empty journal for the project file
+	 * with the given checksum
+	 * @param checksum checksum of the project file
+	 * @throws IOException if the journal cannot be written
+	 */
+	private void startJournal(long checksum) throws IOException {
+		try(FileOutputStream file = new FileOutputStream(journalFile);
+				DataOutputStream out = new DataOutputStream(file)) {
+			out.write(MAGIC);
+			out.writeLong(checksum);
+			out.flush();
+			file.getFD().sync();
+		}
+		journalLength = HEADER_SIZE;
+	}
+	
+	/**
+	 * Applies every complete record in the journal to the project. A journal
+	 * that is missing or was written for a different version of the project
+	 * file is replaced with an empty one, and a record cut off at the end of
+	 * the journal is dropped.
+	 * @param project the project loaded from the project file
+	 * @throws IOException if the journal cannot be read or written
+	 * @throws IllegalArgumentException if a record cannot be applied to the project
+	 */
+	private void replay(Project project) throws IOException {
+		long checksum = checksum(projectFile);
+		long length = readRecords(project, checksum);
+		if(length == 0) {
+			startJournal(checksum);
+		} else {
+			if(length < journalFile.length()) {
+				truncate(length);
+			}
+			journalLength = length;
+		}
+	}
+	
+	/**
+	 * Applies every complete record in the journal to the project without
+	 * changing the journal file
+	 * @param project the project loaded from the project file
+	 * @param checksum checksum of the project file
+	 * @return number of bytes of the journal that were applied, or 0 if the
+	 * journal is missing or was written for a different version of the 
+	 * project file
+	 * @throws IOException if the journal cannot be read
+	 * @throws IllegalArgumentException if a record cannot be applied to the project
+	 */
+	private long readRecords(Project project, long checksum) throws IOException {
+		if(!journalFile.exists()) {
+			return 0;
+		}
+		
+		long length = 0;
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)))) {
+			byte[] magic = new byte[MAGIC.length];
+			in.readFully(magic);
+			if(Arrays.equals(magic, MAGIC) && in.readLong() == checksum) {
+				length = HEADER_SIZE;
+				while(true) {
+					byte[] bytes;
+					try {
+						bytes = BinaryProjectCodec.readBytes(in, BinaryProjectCodec.readVarInt(in));
+					} catch(EOFException e) {
+						break;
+					}
+					apply(project, new ByteArrayInputStream(bytes));
+					length += varIntSize(bytes.length) + bytes.length;
+				}
+			}
+		} catch(EOFException e) {
+			length = 0;
+		}
+		return length;
+	}
+	
+	/**
+	 * Applies a single journal record to the project
+	 * @param project to apply the record to
+	 * @param in the record's fields
+	 * @throws IOException if the record cannot be read
+	 * @throws IllegalArgumentException if the record cannot be applied to the project
+	 */
+	private static void apply(Project project, InputStream in) throws IOException {
+		int type = in.read();
+		try {
+			if(type == ADD_CATEGORY) {
+				project.addCategoryLog(BinaryProjectCodec.readString(in));
+			} else if(type == RENAME_CATEGORY) {
+				project.setCurrentTaskLog(BinaryProjectCodec.readString(in));
+				project.editCategoryLogName(BinaryProjectCodec.readString(in));
+			} else if(type == REMOVE_CATEGORY) {
+				selectCategory(project, BinaryProjectCodec.readString(in));
+				project.removeCategoryLog();
+			} else if(type == ADD_TASK) {
+				int duration = BinaryProjectCodec.readVarInt(in);
+				selectCategory(project, BinaryProjectCodec.readString(in));
+				project.addTask(new Task(BinaryProjectCodec.readString(in), duration, BinaryProjectCodec.readString(in)));
+			} else if(type == EDIT_TASK) {
+				int index = BinaryProjectCodec.readVarInt(in);
+				int duration = BinaryProjectCodec.readVarInt(in);
+				selectCategory(project, BinaryProjectCodec.readString(in));
+				project.editTask(index, BinaryProjectCodec.readString(in), duration, BinaryProjectCodec.readString(in));
+			} else if(type == REMOVE_TASK) {
+				int index = BinaryProjectCodec.readVarInt(in);
+				selectCategory(project, BinaryProjectCodec.readString(in));
+				project.removeTask(index);
+			} else {
+				throw new IllegalArgumentException("Unable to load file.");
+			}
+		} catch(IndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+	}
+	
+	/**
+	 * Makes the category with the given name the project's current log
+	 * @param project to select the category in
+	 * @param categoryName name of the category
+	 * @throws IllegalArgumentException if there is no such category
+	 */
+	private static void selectCategory(Project project, String categoryName) {
+		project.setCurrentTaskLog(categoryName);
+		if(!project.getCurrentLog().getName().equals(categoryName)) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+	}
+	
+	/**
+	 * Writes a varint into the record being built
+	 * @param value to write
+	 */
+	private void writeInt(int value) {
+		try {
+			BinaryProjectCodec.writeVarInt(record, value);
+		} catch(IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	/**
+	 * Writes strings into the record being built and adds the finished
+	 * record to the pending records
+	 * @param values to write
+	 */
+	private void writeStrings(String... values) {
+		try {
+			for(String value : values) {
+				BinaryProjectCodec.writeString(record, value);
+			}
+			BinaryProjectCodec.writeVarInt(pending, record.size());
+			record.writeTo(pending);
+		} catch(IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	/**
+	 * Cuts the journal file off after the given number of bytes
+	 * @param length number of bytes to keep
+	 * @throws IOException if the journal cannot be written
+	 */
+	private void truncate(long length) throws IOException {
+		try(FileOutputStream out = new FileOutputStream(journalFile, true)) {
+			out.getChannel().truncate(length);
+		}
+	}
+	
+	/**
+	 * Returns the number of bytes a varint takes up
+	 * @param value to measure
+	 * @return size of the varint in bytes
+	 */
+	private static int varIntSize(int value) {
+		int size = 1;
+		while((value & ~0x7F) != 0) {
+			value >>>= 7;
+			size++;
+		}
+		return size;
+	}
+	
+	/**
+	 * Returns the CRC-32 checksum of a file
+	 * @param file to check
+	 * @return checksum of the file's contents
+	 * @throws IOException if the file cannot be read
+	 */
+	private static long checksum(File file) throws IOException {
+		CRC32 crc = new CRC32();
+		byte[] buffer = new byte[64 * 1024];
+		try(InputStream in = new FileInputStream(file)) {
+			int count;
+			while((count = in.read(buffer)) >= 0) {
+				crc.update(buffer, 0, count);
+			}
+		}
+		return crc.getValue();
+	}
+}
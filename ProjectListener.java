@@ -0,0 +1,22 @@
+/**
+ * project package as this is how changes to a project are observed
+ */
+package edu.ncsu.csc216.wolf_tracker.model.project;
+
+import java.util.List;
+
+/**
+ * Listener for the changes made to a Project. Changes are delivered in 
+ * batches, one for each transaction: each public change to the project is
+ * a transaction of its own unless it is made between 
+ * Project.beginTransaction and Project.endTransaction.
+ * @author Emilie Athanasenas
+ */
+public interface ProjectListener {
+	
+	/**
+	 * Called after a transaction that changed the project
+	 * @param events the changes made in the transaction, in order
+	 */
+	void projectChanged(List<ProjectEvent> events);
+}
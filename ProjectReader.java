@@ -2,14 +2,23 @@
  * IO package since we're utilizing a file to read from
  */
 package edu.ncsu.csc216.wolf_tracker.model.io;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.Scanner;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.function.Consumer;
 
 import edu.ncsu.csc216.wolf_tracker.model.log.AllTasksLog;
-import edu.ncsu.csc216.wolf_tracker.model.log.CategoryLog;
 import edu.ncsu.csc216.wolf_tracker.model.project.Project;
-import edu.ncsu.csc216.wolf_tracker.model.task.Task;
 
 /**
  * ProjectReader class is responsible for reading in files and 
@@ -19,9 +28,16 @@ import edu.ncsu.csc216.wolf_tracker.model.task.Task;
  */
 public class ProjectReader {
 	
+	/** Bytes every GZIP compressed file starts with */
+	static final byte[] GZIP_MAGIC = {(byte) 0x1f, (byte) 0x8b};
+	
 	/**
 	 * Takes in a file and reads it and outputs it as a Project 
-	 * object,
+	 * object. The file is streamed a record at a time and each record is
+	 * handed to the Project as soon as it is complete, so only the task
+	 * currently being read is held in memory. GZIP compressed files are 
+	 * decompressed as they are read. Files that start with the binary MAGIC
+	 * bytes are read with the binary codec; all others are read as text.
 	 * @param file to be read in
 	 * @return Project object
 	 * @throws IllegalArgumentException if the file cannot be loaded or any other issues occur
@@ -31,95 +47,344 @@ public class ProjectReader {
 			throw new IllegalArgumentException("Unable to load file");
 		}
 		
-		try(Scanner scanner = new Scanner(file)){
-			StringBuilder fileContent = new StringBuilder();
-			while(scanner.hasNextLine()) {
-				fileContent.append(scanner.nextLine()).append("\n");
+		try(InputStream in = open(file)){
+			if(startsWith(in, BinaryProjectCodec.MAGIC)) {
+				return BinaryProjectCodec.read(in);
 			}
-			
-			if(fileContent.length() == 0 || fileContent.charAt(0) != '!') {
-				throw new IllegalArgumentException("Unable to load file.");
+			return readProject(new BufferedReader(new InputStreamReader(in)));
+		} catch(IOException e) {
+			throw new IllegalArgumentException("Unable to load file");
+		}
+	}
+	
+	/**
+	 * Takes in a file and reads it and outputs it as a Project object whose
+	 * task details stay in the file. Each task only keeps the position of its
+	 * details, which are read through a shared TaskDetailsFile when they are
+	 * first needed. Binary and compressed files are read in full, as with
+	 * readProjectFile.
+	 * 
+	 * The file stays open while the project uses it, and the project owns
+	 * it: Project.loadDetails reads the details into memory and closes it,
+	 * and Project.close closes it when the project is no longer needed.
+	 * @param file to be read in
+	 * @return Project object
+	 * @throws IllegalArgumentException if the file cannot be loaded or any other issues occur
+	 */
+	public static Project readProjectFileLazily(File file) {
+		if(file == null || !file.exists()) {
+			throw new IllegalArgumentException("Unable to load file");
+		}
+		
+		FileChannel channel = null;
+		try {
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+			InputStream in = new BufferedInputStream(Channels.newInputStream(channel));
+			if(startsWith(in, BinaryProjectCodec.MAGIC) || startsWith(in, GZIP_MAGIC)) {
+				channel.close();
+				return readProjectFile(file);
 			}
 			
-			String[] tokens = fileContent.toString().split("\\r?\\n?[*]");
-			
-			String[] lines = tokens[0].split("\\r?\\n");
-			String projectName = lines[0].substring(1).trim();
-			
-			
-			Project project = new Project(projectName);
-			
-			String[] categoryLines = tokens[0].split("\\r?\\n");
-			
-			for(String line: categoryLines) {
-				if(line.startsWith("#")) {
-					String categoryName = line.substring(1).trim();
-					if(!categoryName.isEmpty()) {
-						try {
-							CategoryLog category = new CategoryLog(categoryName);
-							project.addCategoryLog(category.getName());
-									
-						} catch(IllegalArgumentException e) {
-							throw new IllegalArgumentException("Invalid categories.");
-						}
+			Charset charset = Charset.defaultCharset();
+			TaskDetailsFile details = new TaskDetailsFile(channel, charset, TaskDetailsFile.DEFAULT_CACHE_SIZE);
+			Project project = readProjectLazily(new LineInput(in, charset), details);
+			project.setDetailsFile(details);
+			return project;
+		} catch(IOException e) {
+			close(channel);
+			throw new IllegalArgumentException("Unable to load file");
+		} catch(RuntimeException e) {
+			close(channel);
+			throw e;
+		}
+	}
+	
+	/**
+	 * Helper method that walks the project records once: the ! line with
+	 * the project name, the # category lines, and then each * task along
+	 * with the detail lines that follow it. The detail lines are not 
+	 * decoded; tasks are given their position in the file instead.
+	 * @param input to read the project records from
+	 * @param details the file the task details are read from later
+	 * @return Project object
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if the records are not a valid project
+	 */
+	private static Project readProjectLazily(LineInput input, TaskDetailsFile details) throws IOException {
+		if(!input.next() || input.first() != '!') {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
+		
+		Project project = new Project(input.text().substring(1).trim());
+		
+		boolean more = input.next();
+		while(more && input.first() != '*') {
+			if(input.first() == '#') {
+				String categoryName = input.text().substring(1).trim();
+				if(!categoryName.isEmpty()) {
+					try {
+						project.addCategoryLog(categoryName);
+					} catch(IllegalArgumentException e) {
+						throw new IllegalArgumentException("Invalid categories.");
 					}
 				}
 			}
-			
-			
-			for(int i = 1; i < tokens.length; i++) {
-				String taskToken = tokens[i].trim();
-				if(!taskToken.isEmpty()) {
-					processTask(project, taskToken);
+			more = input.next();
+		}
+		
+		while(more) {
+			String header = input.text().substring(1);
+			long start = input.end();
+			long end = start;
+			boolean hasDetails = false;
+			more = input.next();
+			while(more && input.first() != '*') {
+				hasDetails |= !input.isBlank();
+				end = input.end();
+				more = input.next();
+			}
+			if(hasDetails && end - start <= Integer.MAX_VALUE) {
+				TaskRecord record = TaskRecord.parse(header, details, start, (int) (end - start));
+				if(record != null) {
+					record.addTo(project);
 				}
 			}
-			
-			project.setCurrentTaskLog(AllTasksLog.ALL_TASKS_NAME);	
-			return project;
+		}
 		
-		} catch(FileNotFoundException e) {
-			throw new IllegalArgumentException("Unable to load file");
+		project.setCurrentTaskLog(AllTasksLog.ALL_TASKS_NAME);
+		return project;
+	}
+	
+	/**
+	 * Returns true if a file is GZIP compressed
+	 * @param file to check
+	 * @return true if the file starts with the GZIP MAGIC bytes
+	 * @throws IOException if the file cannot be read
+	 */
+	static boolean isCompressed(File file) throws IOException {
+		try(InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+			return startsWith(in, GZIP_MAGIC);
+		}
+	}
+	
+	/**
+	 * Returns true if a file holds a project in the binary format, once it
+	 * is decompressed if it is GZIP compressed
+	 * @param file to check
+	 * @return true if the file's contents start with the binary MAGIC bytes
+	 * @throws IOException if the file cannot be read
+	 */
+	static boolean isBinary(File file) throws IOException {
+		try(InputStream in = open(file)) {
+			return startsWith(in, BinaryProjectCodec.MAGIC);
 		}
 	}
 	
 	/**
-	 * Helper method that processes an individual task 
-	 * @param project that contains tasks
-	 * @param task to be processed
+	 * Opens a buffered stream over a file, decompressing it as it is read 
+	 * if it is GZIP compressed
+	 * @param file to open
+	 * @return stream of the file's uncompressed contents
+	 * @throws IOException if the file cannot be opened
 	 */
-	private static void processTask(Project project, String task) {
-		String[] taskLines = task.split("\\r?\\n");
-		String[] taskInfo = taskLines[0].split(",");
+	private static InputStream open(File file) throws IOException {
+		InputStream in = new BufferedInputStream(new FileInputStream(file));
+		try {
+			if(startsWith(in, GZIP_MAGIC)) {
+				in = new BufferedInputStream(new GZIPInputStream(in));
+			}
+		} catch(IOException e) {
+			in.close();
+			throw e;
+		}
+		return in;
+	}
+	
+	/**
+	 * Returns true if the stream starts with the given bytes, without 
+	 * consuming any of them
+	 * @param in stream to check; must support mark
+	 * @param magic bytes to look for
+	 * @return true if the next bytes of the stream are the magic bytes
+	 * @throws IOException if the stream cannot be read
+	 */
+	static boolean startsWith(InputStream in, byte[] magic) throws IOException {
+		byte[] header = new byte[magic.length];
+		in.mark(magic.length);
+		int length = in.readNBytes(header, 0, magic.length);
+		in.reset();
+		return length == magic.length && Arrays.equals(header, magic);
+	}
+	
+	/**
+	 * Closes a channel, ignoring any errors since the load has already failed
+	 * @param channel to close, may be null
+	 */
+	private static void close(FileChannel channel) {
+		if(channel != null) {
+			try {
+				channel.close();
+			} catch(IOException e) {
+				//Do Nothing
+			}
+		}
+	}
+	
+	/**
+	 * Helper method that walks the project records once: the ! line with
+	 * the project name, the # category lines, and then each * task along
+	 * with the detail lines that follow it
+	 * @param reader to read the project records from
+	 * @return Project object
+	 * @throws IOException if the reader fails
+	 * @throws IllegalArgumentException if the records are not a valid project
+	 */
+	static Project readProject(BufferedReader reader) throws IOException {
+		String line = reader.readLine();
+		if(line == null || !line.startsWith("!")) {
+			throw new IllegalArgumentException("Unable to load file.");
+		}
 		
-		if(taskInfo.length != 3) {
-			return;
+		Project project = new Project(line.substring(1).trim());
+		
+		line = reader.readLine();
+		while(line != null && !line.startsWith("*")) {
+			if(line.startsWith("#")) {
+				String categoryName = line.substring(1).trim();
+				if(!categoryName.isEmpty()) {
+					try {
+						project.addCategoryLog(categoryName);
+					} catch(IllegalArgumentException e) {
+						throw new IllegalArgumentException("Invalid categories.");
+					}
+				}
+			}
+			line = reader.readLine();
 		}
 		
-		String taskName = taskInfo[0].trim();
-		String taskDurationStr = taskInfo[1].trim();
-		String taskCategory = taskInfo[2].trim();
-		project.setCurrentTaskLog(taskCategory);
+		readTasks(reader, line, record -> record.addTo(project));
 		
-		int taskDuration;
-		try {
-			taskDuration = Integer.parseInt(taskDurationStr);
-		} catch (NumberFormatException e) {
-			return;
+		project.setCurrentTaskLog(AllTasksLog.ALL_TASKS_NAME);	
+		return project;
+	}
+	
+	/**
+	 * Helper method that reads * task records and the detail lines that
+	 * follow each of them, handing every valid task to the given consumer
+	 * as soon as its record is complete
+	 * @param reader to read the task records from
+	 * @param line the first line of the first task record, or null if there
+	 * are no tasks
+	 * @param records consumer for the tasks that were read
+	 * @throws IOException if the reader fails
+	 */
+	static void readTasks(BufferedReader reader, String line, Consumer<TaskRecord> records) throws IOException {
+		StringBuilder details = new StringBuilder();
+		while(line != null) {
+			String header = line.substring(1);
+			details.setLength(0);
+			line = reader.readLine();
+			while(line != null && !line.startsWith("*")) {
+				details.append(line.trim()).append("\n");
+				line = reader.readLine();
+			}
+			TaskRecord record = TaskRecord.parse(header, details.toString().trim());
+			if(record != null) {
+				records.accept(record);
+			}
 		}
+	}
+	
+	/**
+	 * Reads a file one line of bytes at a time, keeping track of where each
+	 * line ends so positions in the file can be handed to tasks
+	 */
+	private static class LineInput {
+		/** Stream the file is read from */
+		private final InputStream in;
+		/** Charset the file is decoded with */
+		private final Charset charset;
+		/** Bytes of the current line without its line terminator */
+		private byte[] line;
+		/** Number of bytes in the current line */
+		private int length;
+		/** Position in the file after the current line and its line terminator */
+		private long end;
 		
-		StringBuilder description = new StringBuilder();
-		for(int i = 1; i < taskLines.length; i++) {
-			description.append(taskLines[i].trim()).append("\n");
+		/**
+		 * Constructs a LineInput over a stream positioned at the start of the file
+		 * @param in stream to read from
+		 * @param charset the file is decoded with
+		 */
+		LineInput(InputStream in, Charset charset) {
+			this.in = in;
+			this.charset = charset;
+			this.line = new byte[256];
 		}
 		
-		try {
-			Task newTask = new Task(taskName, taskDuration, description.toString().trim());
-			 Object possibleCategoryLog = project.getCurrentLog();
-			if(possibleCategoryLog instanceof CategoryLog) {
-				project.addTask(newTask);
+		/**
+		 * Reads the next line
+		 * @return true if there was another line, false at the end of the file
+		 * @throws IOException if the file cannot be read
+		 */
+		boolean next() throws IOException {
+			length = 0;
+			int b = in.read();
+			if(b < 0) {
+				return false;
+			}
+			while(b >= 0) {
+				end++;
+				if(b == '\n') {
+					break;
+				}
+				if(length == line.length) {
+					line = Arrays.copyOf(line, line.length * 2);
+				}
+				line[length++] = (byte) b;
+				b = in.read();
+			}
+			if(length > 0 && line[length - 1] == '\r') {
+				length--;
+			}
+			return true;
+		}
+		
+		/**
+		 * Returns the first byte of the current line
+		 * @return the first byte, or 0 if the line is empty
+		 */
+		int first() {
+			return length == 0 ? 0 : line[0];
+		}
+		
+		/**
+		 * Returns true if the current line is empty once it is trimmed
+		 * @return true if the line has no characters other than whitespace
+		 */
+		boolean isBlank() {
+			for(int i = 0; i < length; i++) {
+				if((line[i] & 0xFF) > ' ') {
+					return false;
+				}
 			}
-		} catch (IllegalArgumentException e) {
-			//Do Nothing
+			return true;
+		}
+		
+		/**
+		 * Returns the decoded text of the current line
+		 * @return text of the line
+		 */
+		String text() {
+			return new String(line, 0, length, charset);
+		}
+		
+		/**
+		 * Returns the position in the file after the current line
+		 * @return position after the line and its line terminator
+		 */
+		long end() {
+			return end;
 		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,109 @@
+/**
+ * project package as this is a version of a project that does not change
+ */
+package edu.ncsu.csc216.wolf_tracker.model.project;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import edu.ncsu.csc216.wolf_tracker.model.log.AllTasksLog;
+import edu.ncsu.csc216.wolf_tracker.model.log.CategoryLog;
+import edu.ncsu.csc216.wolf_tracker.model.log.TaskLogSnapshot;
+import edu.ncsu.csc216.wolf_tracker.model.task.Task;
+
+/**
+ * Unmodifiable version of a project as it was when the snapshot was taken,
+ * made with Project.snapshot. A snapshot can be read, saved, and exported
+ * on any thread while the project keeps changing, and always shows one
+ * consistent version of the project.
+ * @author Emilie Athanasenas
+ */
+public class ProjectSnapshot {
+	
+	/** Name of the project */
+	private final String projectName;
+	/** Snapshots of the category logs in sorted order */
+	private final TaskLogSnapshot[] categoryLogs;
+	/** Snapshot of the All Tasks log */
+	private final TaskLogSnapshot allTasksLog;
+	/** Position of each category in categoryLogs, by the category tasks refer to */
+	private final Map<CategoryLog, Integer> categoryIndexes;
+	/** The project's change count when the snapshot was taken */
+	private final int changeCount;
+	
+	/**
+	 * Constructs a ProjectSnapshot
+	 * @param projectName name of the project
+	 * @param categories the project's category logs in sorted order
+	 * @param categoryLogs snapshots of the category logs, in the same order
+	 * @param allTasksLog snapshot of the All Tasks log
+	 * @param changeCount the project's change count
+	 */
+	ProjectSnapshot(String projectName, CategoryLog[] categories, TaskLogSnapshot[] categoryLogs, TaskLogSnapshot allTasksLog, int changeCount) {
+		this.projectName = projectName;
+		this.categoryLogs = categoryLogs;
+		this.allTasksLog = allTasksLog;
+		this.changeCount = changeCount;
+		categoryIndexes = new IdentityHashMap<CategoryLog, Integer>();
+		for(int i = 0; i < categories.length; i++) {
+			categoryIndexes.put(categories[i], i);
+		}
+	}
+	
+	/**
+	 * Getter for the projectName field
+	 * @return the projectName
+	 */
+	public String getProjectName() {
+		return projectName;
+	}
+	
+	/**
+	 * Getter for the number of changes the project had when the snapshot
+	 * was taken
+	 * @return the project's change count
+	 */
+	public int getChangeCount() {
+		return changeCount;
+	}
+	
+	/**
+	 * Getter for all the category names of the logs
+	 * @return an Array of all the log names, starting with "All Tasks"
+	 */
+	public String[] getCategoryNames() {
+		String[] categoryNames = new String[categoryLogs.length + 1];
+		categoryNames[0] = AllTasksLog.ALL_TASKS_NAME;
+		for(int i = 0; i < categoryLogs.length; i++) {
+			categoryNames[i + 1] = categoryLogs[i].getName();
+		}
+		return categoryNames;
+	}
+	
+	/**
+	 * Getter for the category logs in sorted order
+	 * @return an Array of all the category log snapshots
+	 */
+	public TaskLogSnapshot[] getCategoryLogs() {
+		return categoryLogs.clone();
+	}
+	
+	/**
+	 * Getter for the log of all the tasks in the project
+	 * @return the All Tasks log snapshot
+	 */
+	public TaskLogSnapshot getAllTasksLog() {
+		return allTasksLog;
+	}
+	
+	/**
+	 * Returns the position of a task's category among the category logs
+	 * @param task in the snapshot
+	 * @return index of the task's category, or -1 if its category was not
+	 * in the project when the snapshot was taken
+	 */
+	public int getCategoryIndex(Task task) {
+		Integer index = categoryIndexes.get(task.getCategory());
+		return index == null ? -1 : index;
+	}
+}
@@ -3,23 +3,51 @@
  */
 package edu.ncsu.csc216.wolf_tracker.model.io;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.zip.GZIPOutputStream;
 
-import edu.ncsu.csc216.wolf_tracker.model.log.AbstractTaskLog;
-import edu.ncsu.csc216.wolf_tracker.model.log.CategoryLog;
+import edu.ncsu.csc216.wolf_tracker.model.log.TaskLogSnapshot;
 
 import edu.ncsu.csc216.wolf_tracker.model.project.Project;
+import edu.ncsu.csc216.wolf_tracker.model.project.ProjectSnapshot;
+import edu.ncsu.csc216.wolf_tracker.model.task.Task;
 
 /**
  * ProjectWriter class is responsible for writing out projects onto 
- * given files
+ * given files. The writers read a snapshot of the project in a single
+ * pass and never change which log is the project's current log, so a
+ * snapshot can be written on another thread while the project changes. Project 
+ * files are written to a temporary file next to the target, synced to disk,
+ * and then renamed over it, so a failed save or a crash never leaves a partly
+ * written project behind. The temporary file is given the target's 
+ * permissions, so saving does not change who can read the project.
+ * Project files whose names end in COMPRESSED_SUFFIX are GZIP compressed
+ * as they are written.
  * @author Dawn Pancholi
  * @author Emilie Athanasenas
  */
 public class ProjectWriter {
 	
+	/** Size of the buffer output is collected in before it is written to the file */
+	private static final int BUFFER_SIZE = 64 * 1024;
+	/** Suffix of the temporary files projects are written to before they replace the target file */
+	public static final String TEMP_SUFFIX = ".tmp";
+	/** Suffix of project file names that are written GZIP compressed */
+	public static final String COMPRESSED_SUFFIX = ".gz";
+	
 	/**
 	 * Writes a given project onto a given file
 	 * @param file to export to 
@@ -27,67 +55,299 @@ public class ProjectWriter {
 	 * @throws IllegalArgumentException if there are any errors with writing the file
 	 */
 	public static void writeProjectFile(File file, Project project) {
-		 if (file == null || project == null) {
-	            throw new IllegalArgumentException("Invalid file or project.");
-	        }
-
-	        try (PrintWriter writer = new PrintWriter(file)) {
-	         
-	            writer.println("! " + project.getProjectName());
-
-	    
-	            String[] categoryNames = project.getCategoryNames();
-	            
-	            
-	            for (int i = 1; i < categoryNames.length; i++) {
-	                writer.println("# " + categoryNames[i]);
-	            }
-	            
-	            String[] names = project.getCategoryNames();
-	            for(int i = 1; i < names.length; i++) {
-	            	project.setCurrentTaskLog(names[i]);
-
-	            	for(int j = 0; j < project.getCurrentLog().getTaskCount(); j++) {
-	            		writer.println(project.getCurrentLog().getTask(j));
-	            	}
-	            	
-	            }
-	        } catch (FileNotFoundException e) {
-	            throw new IllegalArgumentException("Unable to write to file.");
-	        }
-	        
+		if (file == null || project == null) {
+			throw new IllegalArgumentException("Invalid file or project.");
+		}
+		writeProjectFile(file, project.snapshot());
 	}
 	
 	/**
-	 * Writes the statistics of a project onto a given file
+	 * Writes a snapshot of a project onto a given file
+	 * @param file to export to 
+	 * @param project snapshot to write out 
+	 * @throws IllegalArgumentException if there are any errors with writing the file
+	 */
+	public static void writeProjectFile(File file, ProjectSnapshot project) {
+		if (file == null || project == null) {
+			throw new IllegalArgumentException("Invalid file or project.");
+		}
+		writeProjectFile(file, project, false, isCompressed(file));
+	}
+	
+	/**
+	 * Writes a snapshot of a project onto a given file in the given format,
+	 * whatever the file's name
+	 * @param file to export to 
+	 * @param project snapshot to write out 
+	 * @param binary true to write the binary format, false to write text
+	 * @param compressed true to GZIP compress the file
+	 * @throws IllegalArgumentException if there are any errors with writing the file
+	 */
+	static void writeProjectFile(File file, ProjectSnapshot project, boolean binary, boolean compressed) {
+		File temp = null;
+		try {
+			temp = createTempFile(file);
+			if (binary) {
+				writeBinaryProject(temp, compressed, project);
+			} else {
+				writeProject(temp, compressed, project);
+			}
+			replace(file, temp);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to write to file.");
+		} finally {
+			if (temp != null) {
+				temp.delete();
+			}
+		}
+	}
+	
+	/**
+	 * Writes the project records to a file. Task records are written with
+	 * the category name from the snapshot, in the same form as Task's 
+	 * toString.
+	 * @param file to export to
+	 * @param compressed true if the file is GZIP compressed
+	 * @param project snapshot to write out
+	 * @throws IOException if the file cannot be written
+	 */
+	private static void writeProject(File file, boolean compressed, ProjectSnapshot project) throws IOException {
+		TaskLogSnapshot[] categories = project.getCategoryLogs();
+		try (OutputStream out = outputStream(file, compressed)) {
+			PrintWriter writer = writer(out);
+			writer.println("! " + project.getProjectName());
+			
+			for (TaskLogSnapshot category : categories) {
+				writer.println("# " + category.getName());
+			}
+			
+			for (TaskLogSnapshot category : categories) {
+				for (Task task : category.getTasks()) {
+					writer.println("* " + task.getTaskTitle() + "," + task.getTaskDuration() + "," + category.getName() + "\n" + task.getTaskDetails());
+				}
+			}
+			
+			finish(writer, out);
+		}
+	}
+	
+	/**
+	 * Writes a given project onto a given file in the compact binary format.
+	 * ProjectReader recognizes binary files by their header, so they are 
+	 * loaded the same way as text files.
+	 * @param file to export to 
+	 * @param project to write out 
+	 * @throws IllegalArgumentException if there are any errors with writing the file
+	 */
+	public static void writeBinaryProjectFile(File file, Project project) {
+		if (file == null || project == null) {
+			throw new IllegalArgumentException("Invalid file or project.");
+		}
+		writeBinaryProjectFile(file, project.snapshot());
+	}
+	
+	/**
+	 * Writes a snapshot of a project onto a given file in the compact 
+	 * binary format
+	 * @param file to export to 
+	 * @param project snapshot to write out 
+	 * @throws IllegalArgumentException if there are any errors with writing the file
+	 */
+	public static void writeBinaryProjectFile(File file, ProjectSnapshot project) {
+		if (file == null || project == null) {
+			throw new IllegalArgumentException("Invalid file or project.");
+		}
+		writeProjectFile(file, project, true, isCompressed(file));
+	}
+	
+	/**
+	 * Writes the project to a file in the binary format
+	 * @param file to export to
+	 * @param compressed true if the file is GZIP compressed
+	 * @param project snapshot to write out
+	 * @throws IOException if the file cannot be written
+	 */
+	private static void writeBinaryProject(File file, boolean compressed, ProjectSnapshot project) throws IOException {
+		try (OutputStream out = outputStream(file, compressed)) {
+			OutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+			BinaryProjectCodec.write(buffered, project);
+			buffered.flush();
+			finish(out);
+		}
+	}
+	
+	/**
+	 * Writes the statistics of a project onto a given file: a line of
+	 * summary statistics for each category and All Tasks, followed by a
+	 * histogram of the durations in each of them
 	 * @param file to export to
 	 * @param project statistics to write out
 	 * @throws IllegalArgumentException if there is a problem saving the file
 	 */
 	public static void writeStatsFile(File file, Project project) {
-	    try (PrintWriter writer = new PrintWriter(file)) {
-	    	
-	    	String[] categoryNames = project.getCategoryNames();
-	    	writer.println("Category,Count,Min,Max,Average");
-	    	
-	    	for(String name: categoryNames) {
-	    		if(!"All Tasks".equals(name)) {
-	    			project.setCurrentTaskLog(name);
-		    		CategoryLog log = (CategoryLog) project.getCurrentLog();
-		    		if(log.getName().equals(name)) {
-		    			writer.println(log.toString());
-		    		}
-	    		}
-	    		
-	    	}
-	    	project.setCurrentTaskLog("All Tasks");
-	    	AbstractTaskLog allTasksLog = project.getCurrentLog();
-	    	writer.println(allTasksLog.toString());	
-	    	
-	    } catch (FileNotFoundException e) {
-	    	throw new IllegalArgumentException("Unable to save file");
-	    }
-    
+		writeStatsFile(file, project.snapshot());
+	}
+	
+	/**
+	 * Writes the statistics of a snapshot of a project onto a given file,
+	 * in the same form as writeStatsFile for a project
+	 * @param file to export to
+	 * @param project snapshot whose statistics are written out
+	 * @throws IllegalArgumentException if there is a problem saving the file
+	 */
+	public static void writeStatsFile(File file, ProjectSnapshot project) {
+		try (OutputStream out = outputStream(file, false)) {
+			PrintWriter writer = writer(out);
+			writer.println("Category,Count,Min,Max,Average,P50,P90,P99");
+			
+			TaskLogSnapshot[] categories = project.getCategoryLogs();
+			for (TaskLogSnapshot category : categories) {
+				writer.println(category.toString());
+			}
+			writer.println(project.getAllTasksLog().toString());
+			
+			writer.println();
+			writer.println("Category,From,To,Count");
+			for (TaskLogSnapshot category : categories) {
+				writeHistogram(writer, category);
+			}
+			writeHistogram(writer, project.getAllTasksLog());
+			
+			finish(writer, out);
+		} catch (IOException e) {
+			throw new IllegalArgumentException("Unable to save file");
+		}
+	}
+	
+	/**
+	 * Writes a line for each power of two range of durations in a log that
+	 * has tasks, with the range's bounds and the number of tasks in it
+	 * @param writer to write the lines to
+	 * @param log whose durations are written
+	 */
+	private static void writeHistogram(PrintWriter writer, TaskLogSnapshot log) {
+		long[] histogram = log.getDurationSketch().getHistogram();
+		for (int i = 0; i < histogram.length; i++) {
+			if (histogram[i] != 0) {
+				long from = 1L << i;
+				writer.println(log.getName() + "," + from + "," + (2 * from - 1) + "," + histogram[i]);
+			}
+		}
+	}
+	
+	/**
+	 * Creates an empty temporary file in the same directory as a file, so it
+	 * can be renamed over that file once it is written. The temporary file
+	 * is created with the default permissions for new files, or with the 
+	 * file's permissions if it exists.
+	 * @param file the file that will be replaced
+	 * @return the temporary file
+	 * @throws IOException if the temporary file cannot be created
+	 */
+	private static File createTempFile(File file) throws IOException {
+		File target = file.getAbsoluteFile();
+		File temp = File.createTempFile("." + target.getName() + ".", TEMP_SUFFIX, target.getParentFile());
+		try {
+			copyPermissions(target, temp);
+		} catch (IOException | RuntimeException e) {
+			temp.delete();
+			throw e;
+		}
+		return temp;
+	}
+	
+	/**
+	 * Gives a file the POSIX permissions of another file, if that file exists
+	 * and the file system supports POSIX permissions
+	 * @param from the file whose permissions are copied
+	 * @param to the file the permissions are given to
+	 * @throws IOException if the permissions cannot be read or set
+	 */
+	private static void copyPermissions(File from, File to) throws IOException {
+		PosixFileAttributeView view = Files.getFileAttributeView(from.toPath(), PosixFileAttributeView.class);
+		if (view != null && from.exists()) {
+			Files.setPosixFilePermissions(to.toPath(), view.readAttributes().permissions());
+		}
+	}
+	
+	/**
+	 * Syncs a temporary file to disk and renames it over a file, atomically
+	 * if the file system supports it
+	 * @param file the file to replace
+	 * @param temp the temporary file holding the new contents
+	 * @throws IOException if the file cannot be replaced
+	 */
+	private static void replace(File file, File temp) throws IOException {
+		try (FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE)) {
+			channel.force(true);
+		}
+		try {
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+	
+	/**
+	 * Returns true if a project file is written GZIP compressed
+	 * @param file the project file
+	 * @return true if the file name ends in COMPRESSED_SUFFIX
+	 */
+	private static boolean isCompressed(File file) {
+		return file.getName().endsWith(COMPRESSED_SUFFIX);
+	}
+	
+	/**
+	 * Opens an output stream for a file
+	 * @param file to write to
+	 * @param compressed true if the output is GZIP compressed
+	 * @return stream for the file
+	 * @throws IOException if the file cannot be opened
+	 */
+	private static OutputStream outputStream(File file, boolean compressed) throws IOException {
+		OutputStream out = new FileOutputStream(file);
+		if (compressed) {
+			out = new GZIPOutputStream(out, BUFFER_SIZE);
+		}
+		return out;
+	}
+	
+	/**
+	 * Wraps a buffered writer around an output stream. The writer is never
+	 * closed, since PrintWriter hides errors from closing the stream; the 
+	 * stream is finished and closed directly instead.
+	 * @param out stream to write to
+	 * @return writer for the stream
+	 */
+	private static PrintWriter writer(OutputStream out) {
+		return new PrintWriter(new BufferedWriter(new OutputStreamWriter(out), BUFFER_SIZE));
+	}
+	
+	/**
+	 * Flushes a writer into its stream and finishes the stream
+	 * @param writer to flush
+	 * @param out the stream the writer writes to
+	 * @throws IOException if the writer failed or the stream cannot be finished
+	 */
+	private static void finish(PrintWriter writer, OutputStream out) throws IOException {
+		if (writer.checkError()) {
+			throw new IOException("Unable to write to file.");
+		}
+		finish(out);
+	}
+	
+	/**
+	 * Writes the GZIP trailer of a compressed stream and flushes the stream,
+	 * so errors writing the end of the file are thrown instead of being lost
+	 * when the stream is closed
+	 * @param out stream to finish
+	 * @throws IOException if the stream cannot be written
+	 */
+	private static void finish(OutputStream out) throws IOException {
+		if (out instanceof GZIPOutputStream) {
+			((GZIPOutputStream) out).finish();
+		}
+		out.flush();
 	}
 
 }
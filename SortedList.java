@@ -3,6 +3,12 @@
  */
 package edu.ncsu.csc216.wolf_tracker.model.util;
 
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
 /**
  * List architecture for creating SortedLists to allow us to
  * sort projects in certain order
@@ -15,6 +21,8 @@ public class SortedList<E extends Comparable<E>> implements ISortedList<E> {
 	private int size;
 	/** front of the listnode */
 	private ListNode front;
+	/** Number of times elements were added or removed, so iterators can fail fast */
+	private int modCount;
 	
 	/**
 	 * Constructor to make a SortedList object
@@ -56,6 +64,7 @@ public class SortedList<E extends Comparable<E>> implements ISortedList<E> {
 			current.next = newNode;
 		}
 		size++;
+		modCount++;
 		
 	}
 
@@ -88,6 +97,7 @@ public class SortedList<E extends Comparable<E>> implements ISortedList<E> {
 			current.next = current.next.next;
 		}
 		size--;
+		modCount++;
 		return removedElement;
 	}
 
@@ -109,6 +119,25 @@ public class SortedList<E extends Comparable<E>> implements ISortedList<E> {
 		return false;
 	}
 
+	/**
+	 * Returns the index of the element in the list.
+	 * @param element element to search for
+	 * @return index of the element, or -1 if it is not in the list
+	 */
+	@Override
+	public int indexOf(E element) {
+		ListNode current = front;
+		int idx = 0;
+		while(current != null) {
+			if(current.data.compareTo(element) == 0) {
+				return idx;
+			}
+			current = current.next;
+			idx++;
+		}
+		return -1;
+	}
+
 	/**
 	 * Returns the element at the given index.
 	 * @param idx index of the element to retrieve
@@ -139,6 +168,72 @@ public class SortedList<E extends Comparable<E>> implements ISortedList<E> {
 		return size;
 	}
 	
+	/**
+	 * Returns an iterator over the elements in sorted order.
+	 * @return iterator over the elements
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new SortedListIterator();
+	}
+	
+	/**
+	 * Returns a spliterator over the elements in sorted order, so the 
+	 * elements can be streamed in parallel.
+	 * @return spliterator over the elements
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+		return Spliterators.spliterator(iterator(), size,
+				Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL);
+	}
+	
+	/**
+	 * Iterator that walks the nodes of our SortedList
+	 */
+	private class SortedListIterator implements Iterator<E> {
+		/** Node holding the next element to return */
+		private ListNode next;
+		/** Modification count the list must still have */
+		private int expectedModCount;
+		
+		/**
+		 * Constructor to make a SortedListIterator at the front of the list
+		 */
+		SortedListIterator() {
+			next = front;
+			expectedModCount = modCount;
+		}
+
+		/**
+		 * Returns true if there are elements left to return
+		 * @return true if there is a next element
+		 */
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		/**
+		 * Returns the next element
+		 * @return the next element
+		 * @throws NoSuchElementException if there are no elements left
+		 * @throws ConcurrentModificationException if the list was changed
+		 */
+		@Override
+		public E next() {
+			if(modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if(next == null) {
+				throw new NoSuchElementException();
+			}
+			E data = next.data;
+			next = next.next;
+			return data;
+		}
+	}
+	
 	/**
 	 * Nodes that make up our SortedList
 	 */
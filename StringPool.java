@@ -0,0 +1,54 @@
+/**
+ * util package as it is the way repeated text is shared, a utility we'll need for the project
+ */
+package edu.ncsu.csc216.wolf_tracker.model.util;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+
+/**
+ * Pool of strings used to share one copy of each distinct string. Strings
+ * are held weakly, so a string that is no longer used anywhere else is 
+ * dropped from the pool by the garbage collector.
+ * @author Emilie Athanasenas
+ */
+public class StringPool {
+	
+	/** Pooled copy of each string, keyed by the string itself */
+	private final WeakHashMap<String, WeakReference<String>> strings;
+	
+	/**
+	 * Constructs an empty StringPool
+	 */
+	public StringPool() {
+		strings = new WeakHashMap<String, WeakReference<String>>();
+	}
+	
+	/**
+	 * Returns the pooled copy of a string, adding the string to the pool
+	 * if there is no copy
+	 * @param string to look up
+	 * @return a string equal to the given one that is shared by every 
+	 * caller, or null if the string is null
+	 */
+	public synchronized String intern(String string) {
+		if(string == null) {
+			return null;
+		}
+		WeakReference<String> reference = strings.get(string);
+		String pooled = reference == null ? null : reference.get();
+		if(pooled == null) {
+			strings.put(string, new WeakReference<String>(string));
+			pooled = string;
+		}
+		return pooled;
+	}
+	
+	/**
+	 * Returns the number of distinct strings in the pool
+	 * @return number of strings
+	 */
+	public synchronized int size() {
+		return strings.size();
+	}
+}
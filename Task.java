@@ -3,7 +3,10 @@
  */
 package edu.ncsu.csc216.wolf_tracker.model.task;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import edu.ncsu.csc216.wolf_tracker.model.log.CategoryLog;
+import edu.ncsu.csc216.wolf_tracker.model.util.StringPool;
 
 /**
  * Task class contains the information about each individual task including
@@ -12,12 +15,18 @@ import edu.ncsu.csc216.wolf_tracker.model.log.CategoryLog;
  * @author Emilie Athanasenas
  */
 public class Task {
+	/** Source of task IDs, shared by every task */
+	private static final AtomicLong NEXT_ID = new AtomicLong();
+	/** Long field for the ID of the task, which never changes */
+	private final long taskId;
 	/** String field for title of task */
 	private String taskTitle;
 	/** Int field for the duration of a task */
 	private int taskDuration;
-	/** String field for the details of a task */
+	/** String field for the details of a task, or null if the details are read from detailsLocation */
 	private String taskDetails;
+	/** Where the details are read from when they are not kept in memory, or null if they are */
+	private DetailsLocation detailsLocation;
 	/** Instance of CategoryLog */
 	private CategoryLog category;
 	
@@ -29,6 +38,7 @@ public class Task {
 	 * @param details of task 
 	 */
 	public Task(String title, int duration, String details) {
+		taskId = NEXT_ID.getAndIncrement();
 		setTaskTitle(title);
 		setTaskDuration(duration);
 		setTaskDetails(details);
@@ -36,6 +46,63 @@ public class Task {
 		
 	}
 	
+	/**
+	 * Constructs a Task object that takes the place of a task that was 
+	 * created before, keeping its ID. Used by task storage that keeps 
+	 * tasks as records and recreates them when they are read.
+	 * @param taskId ID of the task being recreated
+	 * @param title of task
+	 * @param duration of task
+	 * @param details of task
+	 * @throws IllegalArgumentException if the ID is negative or the title,
+	 * duration, or details are invalid
+	 */
+	public Task(long taskId, String title, int duration, String details) {
+		if(taskId < 0)
+		{
+			throw new IllegalArgumentException("Incomplete task information.");
+		}
+		this.taskId = taskId;
+		NEXT_ID.accumulateAndGet(taskId + 1, Math::max);
+		setTaskTitle(title);
+		setTaskDuration(duration);
+		setTaskDetails(details);
+		category = null;
+	}
+	
+	/**
+	 * Constructs a Task object whose details are not kept in memory. The 
+	 * details are read from the source each time they are needed, until
+	 * they are replaced with setTaskDetails.
+	 * @param title of task
+	 * @param duration of task
+	 * @param source the details are read from
+	 * @param offset position of the details in the source
+	 * @param length of the details in the source
+	 * @throws IllegalArgumentException if the title or duration is invalid,
+	 * the source is null, or the details are empty
+	 */
+	public Task(String title, int duration, TaskDetailsSource source, long offset, int length) {
+		taskId = NEXT_ID.getAndIncrement();
+		setTaskTitle(title);
+		setTaskDuration(duration);
+		if(source == null || offset < 0 || length <= 0)
+		{
+			throw new IllegalArgumentException("Incomplete task information.");
+		}
+		detailsLocation = new DetailsLocation(source, offset, length);
+		category = null;
+	}
+	
+	/**
+	 * Gets the ID of the task. Every task is given a different ID when it is
+	 * created, and the ID stays the same when the task is edited.
+	 * @return task ID
+	 */
+	public long getTaskId() {
+		return taskId;
+	}
+	
 	/**
 	 * Gets the title of the task
 	 * @return task title
@@ -87,9 +154,26 @@ public class Task {
 	 * @return details of task
 	 */
 	public String getTaskDetails() {
+		if(taskDetails == null)
+		{
+			return detailsLocation.source.readDetails(detailsLocation.offset, detailsLocation.length);
+		}
 		return taskDetails;
 	}
 	
+	/**
+	 * Reads the details into memory if they are kept in a file, so the 
+	 * task no longer needs the file
+	 * @throws IllegalStateException if the details can no longer be read
+	 */
+	public void loadDetails() {
+		if(taskDetails == null)
+		{
+			taskDetails = detailsLocation.source.readDetails(detailsLocation.offset, detailsLocation.length);
+			detailsLocation = null;
+		}
+	}
+	
 	/**
 	 * Sets the details of the task to the specified details
 	 * @param details to be set as the details
@@ -106,6 +190,21 @@ public class Task {
 			throw new IllegalArgumentException("Incomplete task information.");
 		}
 		this.taskDetails = details;
+		detailsLocation = null;
+	}
+	
+	/**
+	 * Replaces the task's title and details with the copies in a pool, so
+	 * tasks with the same text share it. Details that are not kept in 
+	 * memory are left in their source.
+	 * @param pool to share the text through
+	 */
+	public void compact(StringPool pool) {
+		taskTitle = pool.intern(taskTitle);
+		if(taskDetails != null)
+		{
+			taskDetails = pool.intern(taskDetails);
+		}
 	}
 	
 	/**
@@ -126,6 +225,14 @@ public class Task {
 		category = c;
 	}
 	
+	/**
+	 * Gets the category the task is logged in
+	 * @return category of the task, or null if it has not been assigned one
+	 */
+	public CategoryLog getCategory() {
+		return category;
+	}
+	
 	/**
 	 * Gets the name of the category
 	 * @return name of category
@@ -143,6 +250,32 @@ public class Task {
 	 * @return task in the form of a String
 	 */
 	public String toString() {
-		return "* " + taskTitle + "," + taskDuration + "," + getCategoryName() + "\n" + taskDetails;
+		return "* " + taskTitle + "," + taskDuration + "," + getCategoryName() + "\n" + getTaskDetails();
+	}
+	
+	/**
+	 * Location of details that are not kept in memory. Only tasks with 
+	 * such details have one, so tasks with their details in memory do not
+	 * carry the fields.
+	 */
+	private static final class DetailsLocation {
+		/** Where the details are read from */
+		private final TaskDetailsSource source;
+		/** Position of the details in the source */
+		private final long offset;
+		/** Length of the details in the source */
+		private final int length;
+		
+		/**
+		 * Constructs a DetailsLocation
+		 * @param source the details are read from
+		 * @param offset position of the details in the source
+		 * @param length of the details in the source
+		 */
+		private DetailsLocation(TaskDetailsSource source, long offset, int length) {
+			this.source = source;
+			this.offset = offset;
+			this.length = length;
+		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+/**
+ * IO package since we're utilizing a file to read from
+ */
+package edu.ncsu.csc216.wolf_tracker.model.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import edu.ncsu.csc216.wolf_tracker.model.task.TaskDetailsSource;
+
+/**
+ * TaskDetailsFile reads task details out of the project file they were 
+ * loaded from, for projects read with ProjectReader.readProjectFileLazily.
+ * All the tasks of a project share the file's channel, and the details that
+ * were read most recently are kept in a bounded cache.
+ * 
+ * The channel is opened when the project is loaded and stays open, so the
+ * details keep coming from that version of the file even after the project
+ * is saved over it. The project owns the file and closes it in 
+ * Project.loadDetails or Project.close.
+ * @author Emilie Athanasenas
+ */
+public class TaskDetailsFile implements TaskDetailsSource, Closeable {
+	
+	/** Default number of details kept in the cache */
+	public static final int DEFAULT_CACHE_SIZE = 256;
+	
+	/** Channel the details are read from */
+	private final FileChannel channel;
+	/** Charset the file is decoded with */
+	private final Charset charset;
+	/** Details that were read most recently, by offset, in access order */
+	private final Map<Long, String> cache;
+	
+	/**
+	 * Constructs a TaskDetailsFile over an open channel
+	 * @param channel the project file the details are read from
+	 * @param charset the file is decoded with
+	 * @param cacheSize number of details kept in the cache
+	 */
+	TaskDetailsFile(FileChannel channel, Charset charset, int cacheSize) {
+		this.channel = channel;
+		this.charset = charset;
+		this.cache = new LinkedHashMap<Long, String>(16, 0.75f, true) {
+			/** ID used for serialization */
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+				return size() > cacheSize;
+			}
+		};
+	}
+	
+	/**
+	 * Reads the detail lines saved at the given offset. Each line is trimmed
+	 * the same way ProjectReader trims details it keeps in memory.
+	 * @param offset position the detail lines start at
+	 * @param length number of bytes the detail lines take up
+	 * @return the details of the task
+	 * @throws IllegalStateException if the file can no longer be read
+	 */
+	@Override
+	public synchronized String readDetails(long offset, int length) {
+		String details = cache.get(offset);
+		if(details != null) {
+			return details;
+		}
+		
+		ByteBuffer bytes = ByteBuffer.allocate(length);
+		try {
+			while(bytes.hasRemaining()) {
+				if(channel.read(bytes, offset + bytes.position()) < 0) {
+					throw new IllegalStateException("Unable to read task details.");
+				}
+			}
+		} catch(IOException e) {
+			throw new IllegalStateException("Unable to read task details.", e);
+		}
+		bytes.flip();
+		
+		StringBuilder text = new StringBuilder(length);
+		for(String line : charset.decode(bytes).toString().split("\\r?\\n")) {
+			text.append(line.trim()).append("\n");
+		}
+		details = text.toString().trim();
+		cache.put(offset, details);
+		return details;
+	}
+	
+	/**
+	 * Closes the file. Tasks whose details were not moved into memory can no
+	 * longer return them.
+	 * @throws IOException if the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
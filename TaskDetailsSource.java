@@ -0,0 +1,23 @@
+/**
+ * task package as this is where the details of a task are kept
+ */
+package edu.ncsu.csc216.wolf_tracker.model.task;
+
+/**
+ * Interface for a place task details can be read from when they are not 
+ * kept in memory. Each task's details are identified by the offset and 
+ * length they were saved at.
+ * @author Emilie Athanasenas
+ */
+public interface TaskDetailsSource {
+	
+	/**
+	 * Reads the details saved at the given offset
+	 * @param offset position the details start at
+	 * @param length number of bytes the details take up
+	 * @return the details of the task
+	 * @throws IllegalStateException if the details can no longer be read
+	 */
+	String readDetails(long offset, int length);
+
+}
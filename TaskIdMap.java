@@ -0,0 +1,147 @@
+/**
+ * Log Package since this is how a log finds where its tasks are
+ */
+package edu.ncsu.csc216.wolf_tracker.model.log;
+
+import java.util.Arrays;
+
+/**
+ * Map from task IDs to non-negative ints, stored in two primitive arrays
+ * with open addressing, so an entry takes a few bytes instead of an entry
+ * object and two boxed numbers.
+ * @author Emilie Athanasenas
+ */
+class TaskIdMap {
+	
+	/** Initial number of entries the arrays can hold */
+	private static final int INIT_CAP = 16;
+	/** Key of an empty entry; task IDs are never negative */
+	private static final long EMPTY = -1;
+	
+	/** Task ID of each entry, or EMPTY */
+	private long[] keys;
+	/** Value of each entry */
+	private int[] values;
+	/** Number of entries in use */
+	private int size;
+	
+	/**
+	 * Constructs an empty TaskIdMap
+	 */
+	TaskIdMap() {
+		keys = new long[INIT_CAP];
+		values = new int[INIT_CAP];
+		Arrays.fill(keys, EMPTY);
+		size = 0;
+	}
+	
+	/**
+	 * Returns the number of task IDs in the map
+	 * @return number of task IDs
+	 */
+	int size() {
+		return size;
+	}
+	
+	/**
+	 * Removes every task ID from the map
+	 */
+	void clear() {
+		Arrays.fill(keys, EMPTY);
+		size = 0;
+	}
+	
+	/**
+	 * Returns the value of a task ID
+	 * @param id task ID
+	 * @return value of the task ID, or -1 if it is not in the map
+	 */
+	int get(long id) {
+		int mask = keys.length - 1;
+		for(int i = hash(id) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+			if(keys[i] == id) {
+				return values[i];
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Sets the value of a task ID
+	 * @param id task ID
+	 * @param value to set, which must not be negative
+	 */
+	void put(long id, int value) {
+		if(2 * (size + 1) > keys.length) {
+			resize(keys.length * 2);
+		}
+		int mask = keys.length - 1;
+		int i = hash(id) & mask;
+		while(keys[i] != EMPTY && keys[i] != id) {
+			i = (i + 1) & mask;
+		}
+		if(keys[i] == EMPTY) {
+			keys[i] = id;
+			size++;
+		}
+		values[i] = value;
+	}
+	
+	/**
+	 * Removes a task ID from the map. The entries after it in its run are
+	 * shifted back, so lookups never need to skip over removed entries.
+	 * @param id task ID
+	 * @return value the task ID had, or -1 if it was not in the map
+	 */
+	int remove(long id) {
+		int mask = keys.length - 1;
+		int i = hash(id) & mask;
+		while(keys[i] != id) {
+			if(keys[i] == EMPTY) {
+				return -1;
+			}
+			i = (i + 1) & mask;
+		}
+		int removed = values[i];
+		int hole = i;
+		for(int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+			int home = hash(keys[j]) & mask;
+			if(((j - home) & mask) >= ((j - hole) & mask)) {
+				keys[hole] = keys[j];
+				values[hole] = values[j];
+				hole = j;
+			}
+		}
+		keys[hole] = EMPTY;
+		size--;
+		return removed;
+	}
+	
+	/**
+	 * Moves the entries into arrays of a new capacity
+	 * @param capacity new capacity, a power of two
+	 */
+	private void resize(int capacity) {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new long[capacity];
+		values = new int[capacity];
+		Arrays.fill(keys, EMPTY);
+		size = 0;
+		for(int i = 0; i < oldKeys.length; i++) {
+			if(oldKeys[i] != EMPTY) {
+				put(oldKeys[i], oldValues[i]);
+			}
+		}
+	}
+	
+	/**
+	 * Spreads the bits of a task ID, since IDs are handed out in sequence
+	 * @param id task ID
+	 * @return hash of the ID
+	 */
+	private static int hash(long id) {
+		long h = id * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+}
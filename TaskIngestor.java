@@ -0,0 +1,243 @@
+/**
+ * project package as this is the central hub of the other classes to be used for the GUI
+ */
+package edu.ncsu.csc216.wolf_tracker.model.project;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import edu.ncsu.csc216.wolf_tracker.model.log.AllTasksLog;
+import edu.ncsu.csc216.wolf_tracker.model.task.Task;
+
+/**
+ * Takes in tasks from many threads at once and adds them to a shared 
+ * project. Submitting a task never blocks: each submission claims the 
+ * next position in a segmented log with an atomic increment and publishes
+ * the task there, installing a new segment with compare-and-set when it 
+ * runs off the end of the last one.
+ * 
+ * Submitted tasks reach the project when drain is called. Each drain takes
+ * at most MAX_DRAIN_BATCH published tasks, groups them by category, and 
+ * adds the groups to their categories and to All Tasks with one bulk add
+ * under a single hold of the project's write lock, so the two logs are 
+ * always updated together and readers see whole batches. The write lock 
+ * is released between batches, so producers that keep submitting cannot
+ * keep readers and writers waiting. Within a category, tasks are added in
+ * the order they were submitted; All Tasks receives each batch's groups 
+ * in the order their categories first appear in it. Draining never changes
+ * the project's current log. Tasks whose category does not exist when 
+ * they are drained, or that already belong to a category, are dropped and
+ * counted as rejected.
+ * @author Emilie Athanasenas
+ */
+public class TaskIngestor {
+	
+	/** Number of positions in each segment of the log */
+	private static final int SEGMENT_SIZE = 1024;
+	/** Greatest number of tasks a single drain adds to the project */
+	public static final int MAX_DRAIN_BATCH = 4 * SEGMENT_SIZE;
+	
+	/** The project the tasks are added to */
+	private final ConcurrentProject project;
+	/** Next position to be claimed */
+	private final AtomicLong tail;
+	/** A recent segment, where submitters start looking for their position */
+	private volatile Segment tailSegment;
+	/** Segment holding the next position to drain */
+	private volatile Segment head;
+	/** Next position to drain */
+	private long headIndex;
+	/** Number of tasks dropped because their category did not exist */
+	private final AtomicLong rejected;
+	
+	/**
+	 * Constructs a TaskIngestor adding tasks to the given project
+	 * @param project to add tasks to
+	 * @throws IllegalArgumentException if the project is null
+	 */
+	public TaskIngestor(ConcurrentProject project) {
+		if(project == null) {
+			throw new IllegalArgumentException("Invalid project.");
+		}
+		this.project = project;
+		tail = new AtomicLong();
+		head = new Segment(0);
+		tailSegment = head;
+		headIndex = 0;
+		rejected = new AtomicLong();
+	}
+	
+	/**
+	 * Submits a task to be added to a category. Safe to call from any 
+	 * number of threads; never blocks.
+	 * @param categoryName name of the category
+	 * @param task to add
+	 * @throws IllegalArgumentException if the category name or task is null
+	 */
+	public void submit(String categoryName, Task task) {
+		if(categoryName == null || task == null) {
+			throw new IllegalArgumentException("Incomplete task information.");
+		}
+		long index = tail.getAndIncrement();
+		Segment segment = tailSegment;
+		if(segment.base > index) {
+			segment = head;
+		}
+		while(index >= segment.base + SEGMENT_SIZE) {
+			Segment next = segment.next.get();
+			if(next == null) {
+				Segment added = new Segment(segment.base + SEGMENT_SIZE);
+				next = segment.next.compareAndSet(null, added) ? added : segment.next.get();
+			}
+			segment = next;
+		}
+		if(tailSegment.base < segment.base) {
+			tailSegment = segment;
+		}
+		segment.entries.set((int) (index - segment.base), new Entry(categoryName, task));
+	}
+	
+	/**
+	 * Returns the number of tasks submitted but not yet drained, including
+	 * any still being published
+	 * @return number of pending tasks
+	 */
+	public long getPendingCount() {
+		synchronized(this) {
+			return tail.get() - headIndex;
+		}
+	}
+	
+	/**
+	 * Returns the number of tasks dropped because their category did not
+	 * exist when they were drained
+	 * @return number of rejected tasks
+	 */
+	public long getRejectedCount() {
+		return rejected.get();
+	}
+	
+	/**
+	 * Adds up to MAX_DRAIN_BATCH published tasks to the project, in the 
+	 * order they were submitted, under one hold of the project's write lock.
+	 * Stops at the first position whose task is still being published, so
+	 * order is kept; that task and the ones after it are added by a later 
+	 * drain. Callers with more pending tasks than one batch call drain 
+	 * again until it returns having found nothing to take.
+	 * @return number of tasks added to the project
+	 */
+	public synchronized int drain() {
+		int[] added = new int[1];
+		project.write(() -> {
+			Project target = project.getProject();
+			Map<String, List<Task>> batches = new LinkedHashMap<String, List<Task>>();
+			Set<Task> taken = Collections.newSetFromMap(new IdentityHashMap<Task, Boolean>());
+			for(int i = 0; i < MAX_DRAIN_BATCH; i++) {
+				Entry entry = take();
+				if(entry == null) {
+					break;
+				}
+				if(accepts(target, entry) && taken.add(entry.task)) {
+					batches.computeIfAbsent(entry.categoryName, name -> new ArrayList<Task>()).add(entry.task);
+					added[0]++;
+				} else {
+					rejected.incrementAndGet();
+				}
+			}
+			target.addTasks(batches);
+		});
+		return added[0];
+	}
+	
+	/**
+	 * Takes the next published task from the log
+	 * @return the next task and its category name, or null if the next 
+	 * position has not been published yet
+	 */
+	private Entry take() {
+		int offset = (int) (headIndex - head.base);
+		if(offset == SEGMENT_SIZE) {
+			Segment next = head.next.get();
+			if(next == null) {
+				return null;
+			}
+			head = next;
+			offset = 0;
+		}
+		Entry entry = head.entries.get(offset);
+		if(entry != null) {
+			head.entries.set(offset, null);
+			headIndex++;
+		}
+		return entry;
+	}
+	
+	/**
+	 * Returns true if a drained task can be added to its category: the 
+	 * category exists and the task does not belong to a category yet
+	 * @param target project to add to, with the write lock held
+	 * @param entry drained task and its category name
+	 * @return true if the task can be added
+	 */
+	private static boolean accepts(Project target, Entry entry) {
+		if(AllTasksLog.ALL_TASKS_NAME.equals(entry.categoryName) || entry.task.getCategory() != null) {
+			return false;
+		}
+		try {
+			target.getTaskLog(entry.categoryName);
+			return true;
+		} catch(IllegalArgumentException e) {
+			return false;
+		}
+	}
+	
+	/**
+	 * A fixed-size run of positions in the log
+	 */
+	private static final class Segment {
+		/** First position in the segment */
+		private final long base;
+		/** Task published at each position, or null if not yet published or already drained */
+		private final AtomicReferenceArray<Entry> entries;
+		/** The segment after this one, or null if none has been installed */
+		private final AtomicReference<Segment> next;
+		
+		/**
+		 * Constructs an empty Segment
+		 * @param base first position in the segment
+		 */
+		private Segment(long base) {
+			this.base = base;
+			entries = new AtomicReferenceArray<Entry>(SEGMENT_SIZE);
+			next = new AtomicReference<Segment>();
+		}
+	}
+	
+	/**
+	 * A submitted task and the name of its category
+	 */
+	private static final class Entry {
+		/** Name of the task's category */
+		private final String categoryName;
+		/** The submitted task */
+		private final Task task;
+		
+		/**
+		 * Constructs an Entry
+		 * @param categoryName name of the task's category
+		 * @param task the submitted task
+		 */
+		private Entry(String categoryName, Task task) {
+			this.categoryName = categoryName;
+			this.task = task;
+		}
+	}
+}
@@ -0,0 +1,177 @@
+/**
+ * Log Package since this is a version of a log that does not change
+ */
+package edu.ncsu.csc216.wolf_tracker.model.log;
+
+import edu.ncsu.csc216.wolf_tracker.model.task.Task;
+import edu.ncsu.csc216.wolf_tracker.model.util.DurationSketch;
+import edu.ncsu.csc216.wolf_tracker.model.util.ILogList;
+
+/**
+ * Unmodifiable version of a task log as it was when the snapshot was 
+ * taken. The snapshot shares the log's storage until the log next changes,
+ * so taking one does not copy the tasks. Its statistics are worked out 
+ * from the stored durations the first time they are asked for, so they
+ * can be read on another thread while the log keeps changing.
+ * 
+ * The tasks in a snapshot report their category's current name.
+ * @author Emilie Athanasenas
+ */
+public class TaskLogSnapshot {
+	
+	/** Name of the log when the snapshot was taken */
+	private final String name;
+	/** The log's tasks when the snapshot was taken */
+	private final TaskStorage tasks;
+	/** True once the statistics have been worked out */
+	private boolean counted;
+	/** Shortest duration */
+	private int minDuration;
+	/** Longest duration */
+	private int maxDuration;
+	/** Sum of the durations */
+	private long durationSum;
+	/** Sketch of the durations */
+	private DurationSketch sketch;
+	
+	/**
+	 * Constructs a TaskLogSnapshot
+	 * @param name of the log
+	 * @param tasks snapshot of the log's storage
+	 */
+	TaskLogSnapshot(String name, TaskStorage tasks) {
+		this.name = name;
+		this.tasks = tasks;
+	}
+	
+	/**
+	 * Gets the name of the log
+	 * @return name of the log
+	 */
+	public String getName() {
+		return name;
+	}
+	
+	/**
+	 * Gets the list of tasks, which cannot be changed
+	 * @return list of tasks
+	 */
+	public ILogList<Task> getTasks() {
+		return tasks;
+	}
+	
+	/**
+	 * Gets the task at a given index
+	 * @param index of task to be returned
+	 * @return task at given index
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 */
+	public Task getTask(int index) {
+		return tasks.getLog(index);
+	}
+	
+	/**
+	 * Returns the number of tasks in the log
+	 * @return number of tasks
+	 */
+	public int getTaskCount() {
+		return tasks.size();
+	}
+	
+	/**
+	 * Gets a window of the tasks in a 2D array of strings. Rows past the 
+	 * end of the log are left out, so the window may be shorter than the
+	 * limit.
+	 * @param offset index of the first task
+	 * @param limit greatest number of tasks
+	 * @return title, duration, and category of each task in the window
+	 * @throws IndexOutOfBoundsException if the offset is negative or past
+	 * the end of the log, or the limit is negative
+	 */
+	public String[][] getTasksAsArray(int offset, int limit) {
+		return getRowView().toArray(offset, limit);
+	}
+	
+	/**
+	 * Creates a reusable view of the snapshot's rows that reads each field
+	 * only when it is asked for. Unlike a view of a live log, it can be 
+	 * used while the log keeps changing.
+	 * @return a view of the snapshot's rows
+	 */
+	public TaskRowView getRowView() {
+		return new TaskRowView(tasks);
+	}
+	
+	/**
+	 * Gets the minimum duration spent on a task
+	 * @return minimum duration, or 0 if the log is empty
+	 */
+	public synchronized int getMinDuration() {
+		count();
+		return minDuration;
+	}
+	
+	/**
+	 * Gets the maximum duration spent on a task
+	 * @return maximum duration, or 0 if the log is empty
+	 */
+	public synchronized int getMaxDuration() {
+		count();
+		return maxDuration;
+	}
+	
+	/**
+	 * Gets the average duration spent on a task
+	 * @return average duration, rounded to a tenth
+	 */
+	public synchronized double getAvgDuration() {
+		count();
+		return AbstractTaskLog.average(durationSum, tasks.size());
+	}
+	
+	/**
+	 * Returns a copy of the sketch of the durations in the log
+	 * @return sketch of the durations
+	 */
+	public synchronized DurationSketch getDurationSketch() {
+		count();
+		DurationSketch copy = new DurationSketch();
+		copy.merge(sketch);
+		return copy;
+	}
+	
+	/**
+	 * Returns the summary statistics in the same form as the log's 
+	 * toString
+	 * @return String representation of the statistics
+	 */
+	@Override
+	public synchronized String toString() {
+		count();
+		return AbstractTaskLog.statistics(name, tasks.size(), minDuration, maxDuration, durationSum, sketch);
+	}
+	
+	/**
+	 * Works out the statistics in one pass over the stored durations, the
+	 * first time they are needed
+	 */
+	private void count() {
+		if(counted) {
+			return;
+		}
+		sketch = new DurationSketch();
+		int size = tasks.size();
+		if(size != 0) {
+			minDuration = Integer.MAX_VALUE;
+			maxDuration = Integer.MIN_VALUE;
+		}
+		for(int i = 0; i < size; i++) {
+			int duration = tasks.getDuration(i);
+			minDuration = Math.min(minDuration, duration);
+			maxDuration = Math.max(maxDuration, duration);
+			durationSum += duration;
+			sketch.add(duration);
+		}
+		counted = true;
+	}
+}
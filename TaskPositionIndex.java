@@ -0,0 +1,198 @@
+/**
+ * Log Package since this is how a log finds where its tasks are
+ */
+package edu.ncsu.csc216.wolf_tracker.model.log;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Index from task IDs to their positions in a task log. Every task in the
+ * log is given a slot in the order it was added. Slots are never moved 
+ * when other tasks are removed; instead a Fenwick tree counts the slots 
+ * still in use, so a task's position is the number of used slots before 
+ * it. Finding, adding, and removing a task are O(log n).
+ * 
+ * Slots of removed tasks are only reclaimed when the index is rebuilt,
+ * which the log does once more than half of the slots are unused.
+ * @author Emilie Athanasenas
+ */
+class TaskPositionIndex {
+	
+	/** Initial number of slots */
+	private static final int INIT_CAP = 16;
+	
+	/** Slot of every task in the log, by task ID */
+	private final TaskIdMap slots;
+	/** Slots still in use */
+	private final BitSet used;
+	/** Fenwick tree over the slots, one-based, counting the slots in use */
+	private int[] tree;
+	/** Slot the next added task is given */
+	private int nextSlot;
+	
+	/**
+	 * Constructs an empty TaskPositionIndex
+	 */
+	TaskPositionIndex() {
+		slots = new TaskIdMap();
+		used = new BitSet();
+		tree = new int[INIT_CAP + 1];
+		nextSlot = 0;
+	}
+	
+	/**
+	 * Returns true if the index should be rebuilt before the next task is
+	 * added, because it is out of slots and most of them are unused
+	 * @return true if the index should be rebuilt
+	 */
+	boolean needsRebuild() {
+		return nextSlot == capacity() && slots.size() < capacity() / 2;
+	}
+	
+	/**
+	 * Removes every task from the index and reclaims all of the slots
+	 */
+	void clear() {
+		slots.clear();
+		used.clear();
+		Arrays.fill(tree, 0);
+		nextSlot = 0;
+	}
+	
+	/**
+	 * Adds a task at the end of the log
+	 * @param id ID of the added task
+	 * @return slot the task was given
+	 */
+	int add(long id) {
+		if(nextSlot == capacity()) {
+			grow();
+		}
+		int slot = nextSlot++;
+		slots.put(id, slot);
+		used.set(slot);
+		update(slot, 1);
+		return slot;
+	}
+	
+	/**
+	 * Removes a task from the index. The positions of the tasks after it
+	 * move up by one.
+	 * @param id ID of the removed task
+	 * @return slot the task had, or -1 if it was not in the index
+	 */
+	int remove(long id) {
+		int slot = slots.remove(id);
+		if(slot < 0) {
+			return -1;
+		}
+		used.clear(slot);
+		update(slot, -1);
+		return slot;
+	}
+	
+	/**
+	 * Replaces a task with another at the same position
+	 * @param oldId ID of the replaced task
+	 * @param newId ID of the task that takes its place
+	 * @return slot of the position, or -1 if the replaced task was not in the index
+	 */
+	int replace(long oldId, long newId) {
+		int slot = slots.remove(oldId);
+		if(slot < 0) {
+			return -1;
+		}
+		slots.put(newId, slot);
+		return slot;
+	}
+	
+	/**
+	 * Returns the position of a task in the log
+	 * @param id ID of the task
+	 * @return position of the task, or -1 if it is not in the index
+	 */
+	int indexOf(long id) {
+		int slot = slots.get(id);
+		if(slot < 0) {
+			return -1;
+		}
+		return prefixCount(slot) - 1;
+	}
+	
+	/**
+	 * Returns the slot of a task
+	 * @param id ID of the task
+	 * @return slot of the task, or -1 if it is not in the index
+	 */
+	int slotOf(long id) {
+		return slots.get(id);
+	}
+	
+	/**
+	 * Converts a set of slots to the positions of the tasks in them. The
+	 * slots in use are walked once in order, so this is linear in the 
+	 * number of slots.
+	 * @param slotSet slots to convert; unused slots are ignored
+	 * @return positions of the tasks in the slots
+	 */
+	BitSet positionsOf(BitSet slotSet) {
+		BitSet result = new BitSet();
+		int position = 0;
+		for(int slot = used.nextSetBit(0); slot >= 0; slot = used.nextSetBit(slot + 1)) {
+			if(slotSet.get(slot)) {
+				result.set(position);
+			}
+			position++;
+		}
+		return result;
+	}
+	
+	/**
+	 * Returns the number of slots available before the index has to grow
+	 * @return number of slots
+	 */
+	private int capacity() {
+		return tree.length - 1;
+	}
+	
+	/**
+	 * Doubles the number of slots and rebuilds the Fenwick tree in O(n)
+	 */
+	private void grow() {
+		tree = new int[capacity() * 2 + 1];
+		for(int slot = used.nextSetBit(0); slot >= 0; slot = used.nextSetBit(slot + 1)) {
+			tree[slot + 1] = 1;
+		}
+		for(int i = 1; i < tree.length; i++) {
+			int parent = i + (i & -i);
+			if(parent < tree.length) {
+				tree[parent] += tree[i];
+			}
+		}
+	}
+	
+	/**
+	 * Adds a value to the count of a slot
+	 * @param slot to update
+	 * @param delta to add to the count
+	 */
+	private void update(int slot, int delta) {
+		for(int i = slot + 1; i < tree.length; i += i & -i) {
+			tree[i] += delta;
+		}
+	}
+	
+	/**
+	 * Counts the slots in use up to and including a slot
+	 * @param slot the last slot counted
+	 * @return number of slots in use
+	 */
+	private int prefixCount(int slot) {
+		int count = 0;
+		for(int i = slot + 1; i > 0; i -= i & -i) {
+			count += tree[i];
+		}
+		return count;
+	}
+}
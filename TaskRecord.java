@@ -0,0 +1,103 @@
+/**
+ * IO package since this is a task read in from a file
+ */
+package edu.ncsu.csc216.wolf_tracker.model.io;
+
+import edu.ncsu.csc216.wolf_tracker.model.log.CategoryLog;
+import edu.ncsu.csc216.wolf_tracker.model.project.Project;
+import edu.ncsu.csc216.wolf_tracker.model.task.Task;
+import edu.ncsu.csc216.wolf_tracker.model.task.TaskDetailsSource;
+
+/**
+ * A task read in from a project file along with the name of the category
+ * it was saved under, so that records can be parsed apart from the Project
+ * they are added to
+ * @author Emilie Athanasenas
+ */
+class TaskRecord {
+	/** Name of the category the task was saved under */
+	private final String categoryName;
+	/** Task that was read in */
+	private final Task task;
+	
+	/**
+	 * Constructs a TaskRecord from a category name and a task
+	 * @param categoryName name of the category the task belongs to
+	 * @param task that was read in
+	 */
+	TaskRecord(String categoryName, Task task) {
+		this.categoryName = categoryName;
+		this.task = task;
+	}
+	
+	/**
+	 * Parses a task record from its header line and details
+	 * @param header the title, duration, and category line of the task
+	 * @param details the trimmed details of the task
+	 * @return the parsed record, or null if the record is not a valid task
+	 */
+	static TaskRecord parse(String header, String details) {
+		return parse(header, details, null, 0, 0);
+	}
+	
+	/**
+	 * Parses a task record whose details are left in the file they were 
+	 * read from
+	 * @param header the title, duration, and category line of the task
+	 * @param source the details are read from
+	 * @param offset position of the details in the source
+	 * @param length of the details in the source
+	 * @return the parsed record, or null if the record is not a valid task
+	 */
+	static TaskRecord parse(String header, TaskDetailsSource source, long offset, int length) {
+		return parse(header, null, source, offset, length);
+	}
+	
+	/**
+	 * Parses a task record with either its details or where to read them from
+	 * @param header the title, duration, and category line of the task
+	 * @param details the trimmed details of the task, or null to read them from the source
+	 * @param source the details are read from if details is null
+	 * @param offset position of the details in the source
+	 * @param length of the details in the source
+	 * @return the parsed record, or null if the record is not a valid task
+	 */
+	private static TaskRecord parse(String header, String details, TaskDetailsSource source, long offset, int length) {
+		String[] taskInfo = header.split(",");
+		
+		if(taskInfo.length != 3) {
+			return null;
+		}
+		
+		String taskName = taskInfo[0].trim();
+		String taskDurationStr = taskInfo[1].trim();
+		String taskCategory = taskInfo[2].trim();
+		
+		int taskDuration;
+		try {
+			taskDuration = Integer.parseInt(taskDurationStr);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+		
+		try {
+			Task task = details != null ? new Task(taskName, taskDuration, details)
+					: new Task(taskName, taskDuration, source, offset, length);
+			return new TaskRecord(taskCategory, task);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Adds the task to its category in the given project. Tasks whose 
+	 * category does not exist in the project are dropped.
+	 * @param project to add the task to
+	 */
+	void addTo(Project project) {
+		project.setCurrentTaskLog(categoryName);
+		if(project.getCurrentLog() instanceof CategoryLog) {
+			project.addTask(task);
+		}
+	}
+}
@@ -0,0 +1,178 @@
+/**
+ * Log Package since this is a view over the rows of a log
+ */
+package edu.ncsu.csc216.wolf_tracker.model.log;
+
+import edu.ncsu.csc216.wolf_tracker.model.task.Task;
+
+/**
+ * Reusable view of one row of a task log, for tables that only show the
+ * rows in view. The view is moved from row to row instead of creating an
+ * object for each row, and each field is read from the log's storage 
+ * only when it is asked for: the duration comes from the duration column
+ * without reading the task, and its text is only made when needed.
+ * 
+ * A view of a live log must be moved again after the log changes. A view
+ * is not safe to share between threads.
+ * @author Emilie Athanasenas
+ */
+public class TaskRowView {
+	
+	/** Number of columns in a row: title, duration, and category */
+	public static final int COLUMN_COUNT = 3;
+	/** Column of the task title */
+	public static final int TITLE_COLUMN = 0;
+	/** Column of the task duration */
+	public static final int DURATION_COLUMN = 1;
+	/** Column of the task category name */
+	public static final int CATEGORY_COLUMN = 2;
+	
+	/** Storage of the log being viewed */
+	private final TaskStorage tasks;
+	/** Index of the row in view, or -1 if the view has not been moved to a row */
+	private int row;
+	/** Task in the row in view, or null if it has not been read yet */
+	private Task task;
+	/** Duration of the row in view as text, or null if it has not been made yet */
+	private String durationText;
+	
+	/**
+	 * Constructs a TaskRowView over a log's storage
+	 * @param tasks storage of the log to view
+	 */
+	TaskRowView(TaskStorage tasks) {
+		this.tasks = tasks;
+		this.row = -1;
+	}
+	
+	/**
+	 * Moves the view to a row
+	 * @param index of the row
+	 * @return this view
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 */
+	public TaskRowView moveTo(int index) {
+		if(index < 0 || index >= tasks.size()) {
+			throw new IndexOutOfBoundsException("Invalid index");
+		}
+		row = index;
+		task = null;
+		durationText = null;
+		return this;
+	}
+	
+	/**
+	 * Gets the index of the row in view
+	 * @return index of the row, or -1 if the view has not been moved to a row
+	 */
+	public int getRow() {
+		return row;
+	}
+	
+	/**
+	 * Gets the title of the task in view
+	 * @return title of the task
+	 * @throws IllegalStateException if the view has not been moved to a row
+	 */
+	public String getTitle() {
+		return getTask().getTaskTitle();
+	}
+	
+	/**
+	 * Gets the duration of the task in view, without reading the task
+	 * @return duration of the task
+	 * @throws IllegalStateException if the view has not been moved to a row
+	 */
+	public int getDuration() {
+		checkRow();
+		return tasks.getDuration(row);
+	}
+	
+	/**
+	 * Gets the duration of the task in view as text
+	 * @return duration of the task as text
+	 * @throws IllegalStateException if the view has not been moved to a row
+	 */
+	public String getDurationText() {
+		if(durationText == null) {
+			durationText = Integer.toString(getDuration());
+		}
+		return durationText;
+	}
+	
+	/**
+	 * Gets the category name of the task in view
+	 * @return category name, or an empty string if the task has no category
+	 * @throws IllegalStateException if the view has not been moved to a row
+	 */
+	public String getCategoryName() {
+		return getTask().getCategoryName();
+	}
+	
+	/**
+	 * Gets a column of the row in view as text, in the same order as the 
+	 * rows of getTasksAsArray
+	 * @param column TITLE_COLUMN, DURATION_COLUMN, or CATEGORY_COLUMN
+	 * @return text of the column
+	 * @throws IndexOutOfBoundsException if the column is out of bounds
+	 * @throws IllegalStateException if the view has not been moved to a row
+	 */
+	public String getColumn(int column) {
+		switch(column) {
+			case TITLE_COLUMN:
+				return getTitle();
+			case DURATION_COLUMN:
+				return getDurationText();
+			case CATEGORY_COLUMN:
+				return getCategoryName();
+			default:
+				throw new IndexOutOfBoundsException("Invalid column");
+		}
+	}
+	
+	/**
+	 * Gets the task in view, reading it from the storage the first time
+	 * @return the task
+	 * @throws IllegalStateException if the view has not been moved to a row
+	 */
+	public Task getTask() {
+		checkRow();
+		if(task == null) {
+			task = tasks.getLog(row);
+		}
+		return task;
+	}
+	
+	/**
+	 * Builds the rows of a window of the log as arrays of strings. Rows 
+	 * past the end of the log are left out, so the window may be shorter
+	 * than the limit.
+	 * @param offset index of the first row
+	 * @param limit greatest number of rows
+	 * @return title, duration, and category of each task in the window
+	 * @throws IndexOutOfBoundsException if the offset is negative or past
+	 * the end of the log, or the limit is negative
+	 */
+	String[][] toArray(int offset, int limit) {
+		if(offset < 0 || offset > tasks.size() || limit < 0) {
+			throw new IndexOutOfBoundsException("Invalid index");
+		}
+		int end = (int) Math.min((long) offset + limit, tasks.size());
+		String[][] rows = new String[end - offset][];
+		for(int i = offset; i < end; i++) {
+			moveTo(i);
+			rows[i - offset] = new String[] {getTitle(), getDurationText(), getCategoryName()};
+		}
+		return rows;
+	}
+	
+	/**
+	 * Checks that the view has been moved to a row
+	 * @throws IllegalStateException if it has not
+	 */
+	private void checkRow() {
+		if(row < 0) {
+			throw new IllegalStateException("No row in view.");
+		}
+	}
+}
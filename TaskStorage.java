@@ -0,0 +1,36 @@
+/**
+ * Log Package since this is how a log stores its tasks
+ */
+package edu.ncsu.csc216.wolf_tracker.model.log;
+
+import edu.ncsu.csc216.wolf_tracker.model.task.Task;
+import edu.ncsu.csc216.wolf_tracker.model.util.ILogList;
+
+/**
+ * Storage for the tasks of a task log. Along with the tasks, the storage
+ * keeps the duration of each task, so a log can read durations without 
+ * going through the tasks. Storage may keep copies of its tasks instead
+ * of the tasks themselves, so an edited task must be set again for the 
+ * edit to be stored. Copies keep the task ID and category of the task.
+ * @author Emilie Athanasenas
+ */
+public interface TaskStorage extends ILogList<Task> {
+	
+	/**
+	 * Returns the stored duration of the task at the given index.
+	 * @param idx index of the task
+	 * @return duration of the task
+	 * @throws IndexOutOfBoundsException if the index is out of bounds
+	 * 		for the list
+	 */
+	int getDuration(int idx);
+	
+	/**
+	 * Returns an unmodifiable copy of the storage as it is now, sharing
+	 * the storage's memory until the storage next changes.
+	 * @return unmodifiable copy of the storage
+	 */
+	@Override
+	TaskStorage snapshot();
+
+}
@@ -0,0 +1,172 @@
+/**
+ * project package as this is a collection of the projects used by the GUI
+ */
+package edu.ncsu.csc216.wolf_tracker.model.project;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import edu.ncsu.csc216.wolf_tracker.model.io.ProjectJournal;
+import edu.ncsu.csc216.wolf_tracker.model.io.ProjectReader;
+import edu.ncsu.csc216.wolf_tracker.model.io.ProjectWriter;
+
+/**
+ * A Workspace is every project loaded from the files in one directory.
+ * The files are loaded concurrently, one task per file, on virtual threads 
+ * when the runtime has them and on a small thread pool otherwise. A file 
+ * that fails to load is recorded as a failure and does not stop the others.
+ * 
+ * By default a workspace only reads its files: journals are replayed 
+ * without being rewritten or truncated, and no journal is attached to the
+ * loaded projects, so files another process is appending to are left as
+ * they are. Attaching journals is opt-in.
+ * @author Emilie Athanasenas
+ */
+public class Workspace {
+	
+	/** Filter for the files loaded by default: visible project files that are not journals or unfinished saves */
+	public static final FileFilter PROJECT_FILES = f -> f.isFile() && !f.isHidden()
+			&& !f.getName().endsWith(ProjectJournal.JOURNAL_SUFFIX) && !f.getName().endsWith(ProjectWriter.TEMP_SUFFIX);
+	
+	/** Projects that were loaded, by file name */
+	private final Map<String, Project> projects;
+	/** Exceptions thrown by the files that could not be loaded, by file name */
+	private final Map<String, Exception> failures;
+	
+	/**
+	 * Constructs a Workspace from its loaded projects and failures
+	 * @param projects that were loaded, by file name
+	 * @param failures of the files that could not be loaded, by file name
+	 */
+	private Workspace(Map<String, Project> projects, Map<String, Exception> failures) {
+		this.projects = Collections.unmodifiableMap(projects);
+		this.failures = Collections.unmodifiableMap(failures);
+	}
+	
+	/**
+	 * Loads every project file in a directory
+	 * @param directory to load the projects from
+	 * @return Workspace of the loaded projects
+	 * @throws IllegalArgumentException if the directory cannot be listed
+	 */
+	public static Workspace load(File directory) {
+		return load(directory, PROJECT_FILES);
+	}
+	
+	/**
+	 * Loads the project files in a directory that are accepted by a filter,
+	 * without writing to any of them. Projects with a journal are loaded
+	 * with their journal replayed.
+	 * @param directory to load the projects from
+	 * @param filter that accepts the files to load
+	 * @return Workspace of the loaded projects
+	 * @throws IllegalArgumentException if the directory cannot be listed
+	 */
+	public static Workspace load(File directory, FileFilter filter) {
+		return load(directory, filter, false);
+	}
+	
+	/**
+	 * Loads the project files in a directory that are accepted by a filter.
+	 * Projects with a journal are loaded with their journal replayed. If 
+	 * journals are attached, each project is opened with 
+	 * ProjectJournal.openProject, which may rewrite or truncate its journal
+	 * and makes later saves append to it.
+	 * @param directory to load the projects from
+	 * @param filter that accepts the files to load
+	 * @param attachJournals true to attach a journal to each project
+	 * @return Workspace of the loaded projects
+	 * @throws IllegalArgumentException if the directory cannot be listed
+	 */
+	public static Workspace load(File directory, FileFilter filter, boolean attachJournals) {
+		File[] files = directory == null ? null : directory.listFiles(filter);
+		if(files == null) {
+			throw new IllegalArgumentException("Unable to load file");
+		}
+		Arrays.sort(files);
+		
+		Map<String, Future<Project>> loads = new LinkedHashMap<String, Future<Project>>();
+		ExecutorService executor = newExecutor(files.length);
+		try {
+			for(File file : files) {
+				loads.put(file.getName(), executor.submit(() -> readProject(file, attachJournals)));
+			}
+		} finally {
+			executor.shutdown();
+		}
+		
+		Map<String, Project> projects = new TreeMap<String, Project>();
+		Map<String, Exception> failures = new TreeMap<String, Exception>();
+		for(Map.Entry<String, Future<Project>> load : loads.entrySet()) {
+			try {
+				projects.put(load.getKey(), load.getValue().get());
+			} catch(ExecutionException e) {
+				failures.put(load.getKey(), e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+			} catch(InterruptedException e) {
+				executor.shutdownNow();
+				Thread.currentThread().interrupt();
+				throw new IllegalArgumentException("Unable to load file");
+			}
+		}
+		return new Workspace(projects, failures);
+	}
+	
+	/**
+	 * Getter for the projects that were loaded
+	 * @return the projects, by file name
+	 */
+	public Map<String, Project> getProjects() {
+		return projects;
+	}
+	
+	/**
+	 * Getter for the files that could not be loaded
+	 * @return the exception thrown by each file, by file name
+	 */
+	public Map<String, Exception> getFailures() {
+		return failures;
+	}
+	
+	/**
+	 * Reads a single project file, replaying its journal if it has one
+	 * @param file to be read in
+	 * @param attachJournal true to attach a journal to the project
+	 * @return Project object
+	 */
+	private static Project readProject(File file, boolean attachJournal) {
+		if(attachJournal) {
+			return ProjectJournal.openProject(file);
+		}
+		if(new File(file.getPath() + ProjectJournal.JOURNAL_SUFFIX).exists()) {
+			return ProjectJournal.readProject(file);
+		}
+		return ProjectReader.readProjectFile(file);
+	}
+	
+	/**
+	 * Creates the executor the files are loaded on. Virtual threads are used
+	 * when the runtime provides them; otherwise a pool of platform threads
+	 * is sized to the machine, since loading is mostly waiting on I/O.
+	 * @param files number of files to load
+	 * @return executor to load the files on
+	 */
+	private static ExecutorService newExecutor(int files) {
+		try {
+			Method virtualThreads = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) virtualThreads.invoke(null);
+		} catch(ReflectiveOperationException e) {
+			int threads = Math.min(Math.max(files, 1), Runtime.getRuntime().availableProcessors() * 2);
+			return Executors.newFixedThreadPool(threads);
+		}
+	}
+}
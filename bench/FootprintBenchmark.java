@@ -0,0 +1,91 @@
+/**
+ * bench package for measurements kept apart from the model, so they are not
+ * part of the model's API
+ */
+package edu.ncsu.csc216.wolf_tracker.bench;
+
+import edu.ncsu.csc216.wolf_tracker.model.project.Project;
+import edu.ncsu.csc216.wolf_tracker.model.task.Task;
+
+/**
+ * Command line benchmark of the heap a project uses for each task, with 
+ * and without compact mode. The benchmark adds tasks to one category, 
+ * drawing their titles from TITLE_COUNT distinct titles and their details
+ * from DETAILS_COUNT distinct details of about 80 characters. Every task
+ * gets its own copy of the text, as tasks read from a file do. The heap in
+ * use is measured after garbage collection before and after the tasks are
+ * added.
+ * 
+ * Usage: FootprintBenchmark [taskCount [compact]]. The defaults are 
+ * 300,000 tasks with compact mode off; pass "compact" to turn it on. Run 
+ * it with a heap large enough that the tasks fit without tuning, such as 
+ * -Xmx1g. The benchmark lives in the bench source folder, outside the
+ * model's source, and is compiled against it only when measuring.
+ * @author Emilie Athanasenas
+ */
+public class FootprintBenchmark {
+	
+	/** Number of tasks added when no count is given */
+	public static final int DEFAULT_TASK_COUNT = 300000;
+	/** Number of distinct task titles */
+	public static final int TITLE_COUNT = 50;
+	/** Number of distinct task details */
+	public static final int DETAILS_COUNT = 20;
+	/** Number of garbage collections run before the heap is measured */
+	private static final int GC_RUNS = 5;
+	
+	/**
+	 * Runs the benchmark and prints the bytes used per task
+	 * @param args the number of tasks, and "compact" to use compact mode
+	 */
+	public static void main(String[] args) {
+		int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_TASK_COUNT;
+		boolean compact = args.length > 1 && "compact".equals(args[1]);
+		long bytes = measure(taskCount, compact);
+		System.out.println((compact ? "compact" : "default") + "," + taskCount + " tasks," 
+				+ bytes / taskCount + " bytes/task");
+	}
+	
+	/**
+	 * Measures the heap used by the tasks of a project
+	 * @param taskCount number of tasks to add
+	 * @param compact true to turn compact mode on before adding them
+	 * @return bytes of heap used by the tasks
+	 */
+	static long measure(int taskCount, boolean compact) {
+		String[] titles = new String[TITLE_COUNT];
+		for(int i = 0; i < titles.length; i++) {
+			titles[i] = "Weekly sync meeting number " + i;
+		}
+		String[] details = new String[DETAILS_COUNT];
+		for(int i = 0; i < details.length; i++) {
+			details[i] = "Discussed roadmap items, blockers and follow-ups for the upcoming sprint " + i;
+		}
+		
+		Project project = new Project("Footprint");
+		project.addCategoryLog("Tasks");
+		project.setCompact(compact);
+		long before = usedHeap();
+		for(int i = 0; i < taskCount; i++) {
+			project.addTask(new Task(new String(titles[i % titles.length].toCharArray()), 1 + i % 90,
+					new String(details[i % details.length].toCharArray())));
+		}
+		long after = usedHeap();
+		if(project.getAllTasksLog().getTaskCount() != taskCount) {
+			throw new IllegalStateException("Tasks were not added.");
+		}
+		return after - before;
+	}
+	
+	/**
+	 * Returns the heap in use after garbage collection
+	 * @return bytes of heap in use
+	 */
+	private static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		for(int i = 0; i < GC_RUNS; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}